@@ -0,0 +1,41 @@
+package me.ghwn.netflix.accountservice;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+
+/**
+ * Starts the account service against an in-memory H2 database, without config server,
+ * service discovery or the bus, for benchmarks that need the full application context.
+ */
+public final class BenchmarkApplication {
+
+    private static final Map<String, Object> PROPERTIES = Map.ofEntries(
+            Map.entry("server.port", 0),
+            Map.entry("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"),
+            Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+            Map.entry("spring.jpa.hibernate.ddl-auto", "create-drop"),
+            Map.entry("spring.jpa.open-in-view", false),
+            Map.entry("spring.cloud.config.enabled", false),
+            Map.entry("spring.cloud.bus.enabled", false),
+            Map.entry("spring.cloud.discovery.enabled", false),
+            Map.entry("eureka.client.enabled", false),
+            Map.entry("logging.level.root", "WARN"),
+            Map.entry("logging.level.me.ghwn.netflix.accountservice", "WARN"),
+            Map.entry("logging.level.org.hibernate.SQL", "WARN"),
+            Map.entry("logging.level.org.hibernate.type", "WARN"),
+            Map.entry("jwt.secret", "YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0"),
+            Map.entry("jwt.access-token.expiration-time", 3600)
+    );
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(AccountServiceApplication.class)
+                .properties(PROPERTIES)
+                .run(args);
+    }
+
+}
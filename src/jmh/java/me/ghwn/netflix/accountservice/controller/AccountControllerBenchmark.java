@@ -0,0 +1,86 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.mapping.AccountMapper;
+import me.ghwn.netflix.accountservice.service.AccountService;
+import me.ghwn.netflix.accountservice.service.OptimisticLockRetry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * HAL {@code EntityModel} assembly of the account detail endpoint, with the service stubbed out.
+ * {@code getAccountDetailNotModified} is a conditional request for the current version, answered with 304.
+ * {@code getAccountDetailMinimal} selects a few fields and skips link building with {@code Prefer: return=minimal}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AccountControllerBenchmark {
+
+    AccountController accountController;
+    String accountId;
+    MockHttpServletRequest request;
+    MockHttpServletRequest conditionalRequest;
+
+    @Setup
+    public void setUp() {
+        accountId = UUID.randomUUID().toString();
+        AccountDto accountDto = new AccountDto(1L, accountId, "user@example.com", "{bcrypt}hash", true,
+                Set.of(AccountRole.USER), LocalDateTime.now(), LocalDateTime.now(), 0L);
+
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getAccountByAccountId(anyString())).thenReturn(accountDto);
+        when(accountService.getAccountSummaryByAccountId(anyString())).thenReturn(accountDto);
+        accountController = new AccountController(accountService, Mappers.getMapper(AccountMapper.class), new ObjectMapper(),
+                new OptimisticLockRetry(new MockEnvironment(), new SimpleMeterRegistry()), new AccountLinks());
+
+        request = new MockHttpServletRequest("GET", "/api/v1/accounts/" + accountId);
+        conditionalRequest = new MockHttpServletRequest("GET", "/api/v1/accounts/" + accountId);
+        conditionalRequest.addHeader(HttpHeaders.IF_NONE_MATCH, AccountVersion.eTag(accountDto));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> getAccountDetail() {
+        return accountController.getAccountDetail(accountId, null, null,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> getAccountDetailMinimal() {
+        return accountController.getAccountDetail(accountId, "accountId,email,active", AccountController.RETURN_MINIMAL,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> getAccountDetailNotModified() {
+        return accountController.getAccountDetail(accountId, null, null,
+                new ServletWebRequest(conditionalRequest, new MockHttpServletResponse()));
+    }
+
+}
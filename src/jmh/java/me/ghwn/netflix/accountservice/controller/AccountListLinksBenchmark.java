@@ -0,0 +1,106 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.mapping.AccountMapper;
+import me.ghwn.netflix.accountservice.service.AccountService;
+import me.ghwn.netflix.accountservice.service.OptimisticLockRetry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * HAL assembly of account list pages of 1 and 100 accounts, with the service stubbed out.
+ * {@code webMvcLinkBuilder} and {@code accountLinks} build only the per-account self links,
+ * the former with {@code linkTo} for each account as the controller used to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AccountListLinksBenchmark {
+
+    @Param({"1", "100"})
+    int size;
+
+    AccountController accountController;
+    AccountLinks accountLinks;
+    PagedResourcesAssembler<AccountDto> assembler;
+    Pageable pageable;
+    List<AccountDto> accounts;
+
+    @Setup
+    public void setUp() {
+        accounts = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            accounts.add(new AccountDto(id, UUID.randomUUID().toString(), "user" + id + "@example.com", "{bcrypt}hash",
+                    true, Set.of(AccountRole.USER), LocalDateTime.now(), LocalDateTime.now(), 0L));
+        }
+        pageable = PageRequest.of(0, size);
+        Page<AccountDto> page = new PageImpl<>(accounts, pageable, 1000);
+
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getAccountList(any())).thenReturn(page);
+        accountLinks = new AccountLinks();
+        accountController = new AccountController(accountService, Mappers.getMapper(AccountMapper.class), new ObjectMapper(),
+                new OptimisticLockRetry(new MockEnvironment(), new SimpleMeterRegistry()), accountLinks);
+        assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/accounts");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> getAccountList() {
+        return accountController.getAccountList(pageable, null, null, null, null, assembler);
+    }
+
+    @Benchmark
+    public List<Link> webMvcLinkBuilder() {
+        List<Link> links = new ArrayList<>(accounts.size());
+        for (AccountDto account : accounts) {
+            links.add(linkTo(AccountController.class).slash(account.getId()).withSelfRel());
+        }
+        return links;
+    }
+
+    @Benchmark
+    public List<Link> accountLinks() {
+        String accountsUri = accountLinks.accounts();
+        List<Link> links = new ArrayList<>(accounts.size());
+        for (AccountDto account : accounts) {
+            links.add(Link.of(AccountLinks.account(accountsUri, account.getId())).withSelfRel());
+        }
+        return links;
+    }
+
+}
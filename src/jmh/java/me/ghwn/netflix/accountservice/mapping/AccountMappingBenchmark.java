@@ -0,0 +1,98 @@
+package me.ghwn.netflix.accountservice.mapping;
+
+import me.ghwn.netflix.accountservice.AccountServiceApplication;
+import me.ghwn.netflix.accountservice.dto.AccountDetail;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective {@code modelMapper()} bean with the generated {@link AccountMapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AccountMappingBenchmark {
+
+    ModelMapper modelMapper;
+    AccountMapper accountMapper;
+    Account account;
+    AccountDto accountDto;
+    SignupRequest signupRequest;
+    AccountUpdateRequest updateRequest;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new AccountServiceApplication().modelMapper();
+        accountMapper = Mappers.getMapper(AccountMapper.class);
+        account = new Account(1L, UUID.randomUUID().toString(), "user@example.com", "{bcrypt}hash", true,
+                Set.of(AccountRole.USER, AccountRole.ADMIN));
+        accountDto = modelMapper.map(account, AccountDto.class);
+        signupRequest = new SignupRequest("user@example.com", "P@ssw0rd1234", null, Set.of(AccountRole.USER));
+        updateRequest = new AccountUpdateRequest(null, false, null);
+    }
+
+    @Benchmark
+    public AccountDto accountToDto() {
+        return modelMapper.map(account, AccountDto.class);
+    }
+
+    @Benchmark
+    public AccountDetail dtoToDetail() {
+        return modelMapper.map(accountDto, AccountDetail.class);
+    }
+
+    @Benchmark
+    public AccountDetail accountToDetail() {
+        return modelMapper.map(modelMapper.map(account, AccountDto.class), AccountDetail.class);
+    }
+
+    @Benchmark
+    public Account signupRequestToEntity() {
+        return modelMapper.map(signupRequest, Account.class);
+    }
+
+    @Benchmark
+    public Account updateRequestToEntity() {
+        Account target = new Account();
+        modelMapper.map(updateRequest, target);
+        return target;
+    }
+
+    @Benchmark
+    public AccountDto generatedAccountToDto() {
+        return accountMapper.toDto(account);
+    }
+
+    @Benchmark
+    public AccountDetail generatedDtoToDetail() {
+        return accountMapper.toDetail(accountDto);
+    }
+
+    @Benchmark
+    public AccountDetail generatedAccountToDetail() {
+        return accountMapper.toDetail(accountMapper.toDto(account));
+    }
+
+    @Benchmark
+    public Account generatedSignupRequestToEntity() {
+        return accountMapper.toEntity(signupRequest);
+    }
+
+    @Benchmark
+    public Account generatedUpdateRequestToEntity() {
+        Account target = new Account();
+        accountMapper.update(updateRequest, target);
+        return target;
+    }
+
+}
@@ -0,0 +1,43 @@
+package me.ghwn.netflix.accountservice.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and throughput of BCrypt hashing per strength,
+ * to choose {@code account.password-encoder.target-latency} for a deployment.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+public class BCryptStrengthBenchmark {
+
+    private static final String PASSWORD = "P@ssw0rd1234";
+
+    @Param({"8", "10", "12", "14"})
+    int strength;
+
+    BCryptPasswordEncoder encoder;
+    String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, encodedPassword);
+    }
+
+}
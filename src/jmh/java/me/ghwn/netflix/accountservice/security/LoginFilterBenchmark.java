@@ -0,0 +1,52 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login request body parsing, with an authentication manager that accepts every request.
+ * A request can be read only once, so every invocation builds a new one;
+ * {@link #newRequest()} measures that part alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LoginFilterBenchmark {
+
+    private static final byte[] BODY = "{\"email\":\"user@example.com\",\"password\":\"P@ssw0rd1234\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    LoginFilter loginFilter;
+    MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        loginFilter = new LoginFilter(authentication -> authentication, new SimpleMeterRegistry());
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest newRequest() {
+        return request();
+    }
+
+    @Benchmark
+    public Authentication attemptAuthentication() {
+        return loginFilter.attemptAuthentication(request(), response);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(BODY);
+        return request;
+    }
+
+}
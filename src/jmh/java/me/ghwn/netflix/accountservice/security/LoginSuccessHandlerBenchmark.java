@@ -0,0 +1,87 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issuance on successful login.
+ * {@code jjwtAccessToken} reproduces the former per-login path that derived the key and built the token with jjwt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LoginSuccessHandlerBenchmark {
+
+    private static final String SECRET = "YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0YmVuY2htYXJrc2VjcmV0";
+    private static final long EXPIRATION_TIME = 3600L;
+
+    AccessTokenIssuer accessTokenIssuer;
+    LoginSuccessHandler loginSuccessHandler;
+    Authentication authentication;
+    MockHttpServletRequest request;
+    String accountId;
+    Set<AccountRole> roles;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("jwt.secret", SECRET)
+                .withProperty("jwt.access-token.expiration-time", String.valueOf(EXPIRATION_TIME));
+        accessTokenIssuer = new AccessTokenIssuer(new AccessTokenKeyHolder(env));
+        loginSuccessHandler = new LoginSuccessHandler(accessTokenIssuer, new SimpleMeterRegistry());
+        accountId = UUID.randomUUID().toString();
+        roles = Set.of(AccountRole.USER);
+        Account account = new Account(1L, accountId, "user@example.com", "{bcrypt}hash", true,
+                Set.of(AccountRole.USER));
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        authentication = new UsernamePasswordAuthenticationToken(new AccountContext(account, authorities), null, authorities);
+        request = new MockHttpServletRequest("POST", "/login");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse onAuthenticationSuccess() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        loginSuccessHandler.onAuthenticationSuccess(request, response, authentication);
+        return response;
+    }
+
+    @Benchmark
+    public String issueAccessToken() {
+        return accessTokenIssuer.issue(accountId, "user@example.com", roles);
+    }
+
+    @Benchmark
+    public String jjwtAccessToken() {
+        SecretKey secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.builder()
+                .setHeaderParam(Header.TYPE, "JWT")
+                .claim(AccessTokenIssuer.ACCOUNT_ID_CLAIM, accountId)
+                .setSubject("user@example.com")
+                .claim(AccessTokenIssuer.ROLES_CLAIM, List.of("USER"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + (EXPIRATION_TIME * 1000)))
+                .signWith(secretKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+}
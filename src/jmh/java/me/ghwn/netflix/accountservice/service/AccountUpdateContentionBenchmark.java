@@ -0,0 +1,70 @@
+package me.ghwn.netflix.accountservice.service;
+
+import me.ghwn.netflix.accountservice.BenchmarkApplication;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent writers updating the same account against an in-memory H2 database.
+ * Every update flips the active flag, so each one bumps the version. Updates that still conflict after
+ * {@code maxAttempts} attempts are counted as {@code conflicts} instead of failing the benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class AccountUpdateContentionBenchmark {
+
+    @Param({"1", "3"})
+    int maxAttempts;
+
+    ConfigurableApplicationContext context;
+    AccountService accountService;
+    OptimisticLockRetry optimisticLockRetry;
+    Long id;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Writer {
+
+        public long conflicts;
+
+        boolean active;
+
+    }
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--account.update.max-attempts=" + maxAttempts);
+        accountService = context.getBean(AccountService.class);
+        optimisticLockRetry = context.getBean(OptimisticLockRetry.class);
+        id = accountService.createAccount(
+                new SignupRequest("contended@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER))).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountDto updateSameAccount(Writer writer) {
+        writer.active = !writer.active;
+        AccountUpdateRequest request = new AccountUpdateRequest(null, writer.active, null);
+        try {
+            return optimisticLockRetry.run(() -> accountService.updateAccount(id, request));
+        } catch (OptimisticLockingFailureException e) {
+            writer.conflicts++;
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package me.ghwn.netflix.accountservice.service;
+
+import me.ghwn.netflix.accountservice.BenchmarkApplication;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account lookup on login against an in-memory H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LoadUserByUsernameBenchmark {
+
+    private static final String EMAIL = "user@example.com";
+
+    ConfigurableApplicationContext context;
+    AccountService accountService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountService = context.getBean(AccountService.class);
+        accountService.createAccount(new SignupRequest(EMAIL, "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return accountService.loadUserByUsername(EMAIL);
+    }
+
+}
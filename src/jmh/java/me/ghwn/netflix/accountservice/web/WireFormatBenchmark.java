@@ -0,0 +1,85 @@
+package me.ghwn.netflix.accountservice.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.ghwn.netflix.accountservice.dto.AccountDetail;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a HAL page of 20 accounts as JSON and as CBOR, with the mappers of {@link CborConfig}.
+ * The payload size of each format is reported as the {@code payloadBytes} counter of {@code encode}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<PagedModel<EntityModel<AccountDetail>>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor"})
+    String format;
+
+    ObjectMapper objectMapper;
+    PagedModel<EntityModel<AccountDetail>> page;
+    byte[] payload;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = format.equals("cbor")
+                ? Jackson2ObjectMapperBuilder.cbor()
+                : Jackson2ObjectMapperBuilder.json();
+        objectMapper = CborConfig.halObjectMapper(builder, new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        List<EntityModel<AccountDetail>> accounts = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            AccountDetail account = new AccountDetail(id, UUID.randomUUID().toString(), "user" + id + "@example.com",
+                    true, Set.of(AccountRole.USER), LocalDateTime.now(), LocalDateTime.now());
+            accounts.add(EntityModel.of(account, Link.of("http://localhost:8080/api/v1/accounts/" + id)));
+        }
+        page = PagedModel.of(accounts, new PagedModel.PageMetadata(20, 0, 1000),
+                Link.of("http://localhost:8080/api/v1/accounts?page=0&size=20"),
+                Link.of("http://localhost:8080/api/v1/accounts?page=1&size=20", IanaLinkRelations.NEXT));
+        payload = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize payloadSize) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(page);
+        payloadSize.payloadBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<AccountDetail>> decode() throws IOException {
+        return objectMapper.readValue(payload, PAGE_TYPE);
+    }
+
+}
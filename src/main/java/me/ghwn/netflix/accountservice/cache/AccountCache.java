@@ -0,0 +1,164 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of accounts keyed by id, accountId and email.
+ * A loaded account is stored under all of its keys, so a lookup by one key warms the others.
+ */
+@RequiredArgsConstructor
+@Component
+public class AccountCache {
+
+    public static final String BY_ID = "accounts-by-id";
+    public static final String BY_ACCOUNT_ID = "accounts-by-account-id";
+    public static final String BY_EMAIL = "accounts-by-email";
+    public static final String LOGIN_USERS = "login-users";
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<AccountCacheEvictionPublisher> evictionPublisher;
+
+    public AccountDto getById(Long id, Supplier<AccountDto> loader) {
+        return get(BY_ID, id, loader);
+    }
+
+    public AccountDto getByAccountId(String accountId, Supplier<AccountDto> loader) {
+        return get(BY_ACCOUNT_ID, accountId, loader);
+    }
+
+    public AccountDto getByEmail(String email, Supplier<AccountDto> loader) {
+        return get(BY_EMAIL, email, loader);
+    }
+
+    /**
+     * @param accountId
+     * @return cached account, or null if it is not cached
+     */
+    public AccountDto peekByAccountId(String accountId) {
+        return cache(BY_ACCOUNT_ID).get(accountId, AccountDto.class);
+    }
+
+    /**
+     * Gets accounts by accountIds, loading only the ones that are not cached, all at once.
+     *
+     * @param accountIds
+     * @param loader loads the accounts of the given accountIds that exist
+     * @return accounts by accountId, without the unknown ones
+     */
+    public Map<String, AccountDto> getAllByAccountId(Collection<String> accountIds,
+                                                     Function<Set<String>, Collection<AccountDto>> loader) {
+        Cache cache = cache(BY_ACCOUNT_ID);
+        Map<String, AccountDto> accounts = new HashMap<>();
+        Set<String> missingAccountIds = new LinkedHashSet<>();
+        for (String accountId : accountIds) {
+            AccountDto account = cache.get(accountId, AccountDto.class);
+            if (account != null) {
+                accounts.put(accountId, account);
+            } else {
+                missingAccountIds.add(accountId);
+            }
+        }
+        if (!missingAccountIds.isEmpty()) {
+            for (AccountDto account : loader.apply(missingAccountIds)) {
+                put(account);
+                accounts.put(account.getAccountId(), account);
+            }
+        }
+        return accounts;
+    }
+
+    public void put(AccountDto account) {
+        cache(BY_ID).put(account.getId(), account);
+        cache(BY_ACCOUNT_ID).put(account.getAccountId(), account);
+        cache(BY_EMAIL).put(account.getEmail(), account);
+    }
+
+    /**
+     * Evicts an account immediately and once more when the surrounding transaction completes.
+     * The second eviction clears an entry that a concurrent reader may have loaded from the
+     * not yet committed state in the meantime.
+     * Once the write is committed, the eviction is broadcast to the other instances over the bus.
+     *
+     * @param id
+     * @param accountId
+     * @param email
+     */
+    public void evict(Long id, String accountId, String email) {
+        evictNow(id, accountId, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id, accountId, email);
+                    if (status == STATUS_COMMITTED) {
+                        evictionPublisher.ifAvailable(publisher -> publisher.enqueue(id, accountId, email));
+                    }
+                }
+            });
+        } else {
+            evictionPublisher.ifAvailable(publisher -> publisher.enqueue(id, accountId, email));
+        }
+    }
+
+    /**
+     * Evicts accounts from this instance only, e.g. when another instance has reported a write.
+     *
+     * @param ids
+     * @param accountIds
+     * @param emails
+     */
+    public void evictLocally(Collection<Long> ids, Collection<String> accountIds, Collection<String> emails) {
+        if (ids != null) {
+            ids.forEach(id -> evictNow(id, null, null));
+        }
+        if (accountIds != null) {
+            accountIds.forEach(accountId -> evictNow(null, accountId, null));
+        }
+        if (emails != null) {
+            emails.forEach(email -> evictNow(null, null, email));
+        }
+    }
+
+    private void evictNow(Long id, String accountId, String email) {
+        if (id != null) {
+            cache(BY_ID).evict(id);
+        }
+        if (accountId != null) {
+            cache(BY_ACCOUNT_ID).evict(accountId);
+        }
+        if (email != null) {
+            cache(BY_EMAIL).evict(email);
+            cache(LOGIN_USERS).evict(email);
+        }
+    }
+
+    private AccountDto get(String cacheName, Object key, Supplier<AccountDto> loader) {
+        AccountDto account = cache(cacheName).get(key, AccountDto.class);
+        if (account == null) {
+            account = loader.get();
+            put(account);
+        }
+        return account;
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name));
+    }
+
+}
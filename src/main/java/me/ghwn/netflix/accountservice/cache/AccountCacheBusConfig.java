@@ -0,0 +1,14 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import me.ghwn.netflix.accountservice.service.KnownEmailEvent;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@RemoteApplicationEventScan(basePackageClasses = {AccountCacheEvictionEvent.class, KnownEmailEvent.class})
+@ConditionalOnBusEnabled
+@Configuration
+public class AccountCacheBusConfig {
+}
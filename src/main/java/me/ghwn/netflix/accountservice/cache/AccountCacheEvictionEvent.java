@@ -0,0 +1,35 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Bus event that carries a batch of accounts to be evicted from the account cache of every instance.
+ */
+@Getter @Setter @NoArgsConstructor
+public class AccountCacheEvictionEvent extends RemoteApplicationEvent {
+
+    private Set<Long> ids;
+
+    private Set<String> accountIds;
+
+    private Set<String> emails;
+
+    public AccountCacheEvictionEvent(Object source,
+                                     String originService,
+                                     Destination destination,
+                                     Set<Long> ids,
+                                     Set<String> accountIds,
+                                     Set<String> emails) {
+        super(source, originService, destination);
+        this.ids = ids;
+        this.accountIds = accountIds;
+        this.emails = emails;
+    }
+
+}
@@ -0,0 +1,36 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.ghwn.netflix.accountservice.datasource.PrimaryStickiness;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnBusEnabled
+@Component
+public class AccountCacheEvictionListener {
+
+    private final AccountCache accountCache;
+    private final PrimaryStickiness primaryStickiness;
+    private final BusProperties busProperties;
+
+    @EventListener
+    public void onAccountCacheEviction(AccountCacheEvictionEvent event) {
+        // The origin has already evicted these accounts when the write completed.
+        if (busProperties.getId().equals(event.getOriginService())) {
+            return;
+        }
+        log.debug("Evicting accounts {} requested by {}", event.getAccountIds(), event.getOriginService());
+        // Until the replica has caught up, the next load must come from the primary, or the stale row
+        // would be cached here for the whole time to live.
+        primaryStickiness.stickAll(event.getIds());
+        primaryStickiness.stickAll(event.getAccountIds());
+        primaryStickiness.stickAll(event.getEmails());
+        accountCache.evictLocally(event.getIds(), event.getAccountIds(), event.getEmails());
+    }
+
+}
@@ -0,0 +1,66 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects evicted accounts and broadcasts them over the bus in batches.
+ * Evictions of the same account within one flush interval are coalesced into a single entry,
+ * so a burst of writes results in one bus message per interval.
+ */
+@RequiredArgsConstructor
+@ConditionalOnBusEnabled
+@Component
+public class AccountCacheEvictionPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination.Factory destinationFactory;
+
+    private Set<Long> pendingIds = new HashSet<>();
+    private Set<String> pendingAccountIds = new HashSet<>();
+    private Set<String> pendingEmails = new HashSet<>();
+
+    public synchronized void enqueue(Long id, String accountId, String email) {
+        if (id != null) {
+            pendingIds.add(id);
+        }
+        if (accountId != null) {
+            pendingAccountIds.add(accountId);
+        }
+        if (email != null) {
+            pendingEmails.add(email);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.cache.bus.flush-interval:100}")
+    public void flush() {
+        AccountCacheEvictionEvent event;
+        synchronized (this) {
+            if (pendingIds.isEmpty() && pendingAccountIds.isEmpty() && pendingEmails.isEmpty()) {
+                return;
+            }
+            event = new AccountCacheEvictionEvent(
+                    this,
+                    busProperties.getId(),
+                    destinationFactory.getDestination(null),
+                    pendingIds,
+                    pendingAccountIds,
+                    pendingEmails
+            );
+            pendingIds = new HashSet<>();
+            pendingAccountIds = new HashSet<>();
+            pendingEmails = new HashSet<>();
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+}
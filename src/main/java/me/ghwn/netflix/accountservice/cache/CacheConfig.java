@@ -0,0 +1,54 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import me.ghwn.netflix.accountservice.security.CachingPasswordEncoder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Configuration
+public class CacheConfig {
+
+    private final Environment env;
+
+    /**
+     * Builds a cache manager for account lookups.
+     * Caffeine evicts by W-TinyLFU, which keeps the small set of frequently read accounts resident.
+     * Statistics are recorded so that hit, miss and eviction counts are published through actuator.
+     *
+     * @return CacheManager
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(env.getProperty("account.cache.maximum-size", Long.class, 10_000L))
+                .expireAfterWrite(env.getProperty("account.cache.time-to-live", Duration.class, Duration.ofMinutes(10)))
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(AccountCache.BY_ID, AccountCache.BY_ACCOUNT_ID, AccountCache.BY_EMAIL));
+
+        // Login caches are only used when account.login-cache.enabled is set, and are kept short-lived.
+        long loginCacheSize = env.getProperty("account.login-cache.maximum-size", Long.class, 10_000L);
+        Duration loginCacheTtl = env.getProperty("account.login-cache.time-to-live", Duration.class, Duration.ofSeconds(30));
+        cacheManager.registerCustomCache(AccountCache.LOGIN_USERS, Caffeine.newBuilder()
+                .maximumSize(loginCacheSize)
+                .expireAfterWrite(loginCacheTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CachingPasswordEncoder.CACHE_NAME, Caffeine.newBuilder()
+                .maximumSize(loginCacheSize)
+                .expireAfterWrite(loginCacheTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+}
@@ -1,26 +1,46 @@
 package me.ghwn.netflix.accountservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.ghwn.netflix.accountservice.dto.AccountDetail;
 import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountLookupRequest;
 import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.BatchSignupRequest;
+import me.ghwn.netflix.accountservice.dto.BatchSignupResponse;
+import me.ghwn.netflix.accountservice.dto.ProjectedAccount;
 import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.dto.SignupResult;
+import me.ghwn.netflix.accountservice.mapping.AccountMapper;
 import me.ghwn.netflix.accountservice.service.AccountService;
-import org.modelmapper.ModelMapper;
+import me.ghwn.netflix.accountservice.service.OptimisticLockRetry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.*;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -28,10 +48,24 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 @RestController
 public class AccountController {
 
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String PREFER = "Prefer";
+    public static final String PREFERENCE_APPLIED = "Preference-Applied";
+    public static final String RETURN_MINIMAL = "return=minimal";
+
+    /**
+     * Media types of single account representations, the default first.
+     */
+    private static final List<MediaType> ACCOUNT_MEDIA_TYPES = List.of(MediaTypes.HAL_JSON, MediaType.APPLICATION_CBOR);
+
     private final AccountService accountService;
-    private final ModelMapper modelMapper;
+    private final AccountMapper accountMapper;
+    private final ObjectMapper objectMapper;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final AccountLinks accountLinks;
 
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaTypes.HAL_JSON_VALUE)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+                 produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<?> createAccount(@Valid @RequestBody SignupRequest request,
                                            BindingResult bindingResult) throws BindException {
         if (bindingResult.hasErrors()) {
@@ -39,82 +73,418 @@ public class AccountController {
         }
         AccountDto createdAccountDto = accountService.createAccount(request);
 
-        EntityModel<AccountDetail> content = EntityModel.of(modelMapper.map(createdAccountDto, AccountDetail.class));
-        Link selfLink = linkTo(getClass()).slash(createdAccountDto.getAccountId()).withSelfRel();
+        String accountsUri = accountLinks.accounts();
+        EntityModel<AccountDetail> content = EntityModel.of(accountMapper.toDetail(createdAccountDto));
+        Link selfLink = Link.of(AccountLinks.account(accountsUri, createdAccountDto.getAccountId())).withSelfRel();
         content.add(selfLink);
-        content.add(linkTo(getClass()).withRel("create-account"));
+        content.add(Link.of(accountsUri).withRel("create-account"));
         content.add(Link.of("/docs/index.html#resources-accounts-create").withRel("profile"));
         return ResponseEntity.created(selfLink.toUri()).body(content);
     }
 
-    @GetMapping(value = "/{accountId}", produces = MediaTypes.HAL_JSON_VALUE)
-    public ResponseEntity<?> getAccountDetail(@PathVariable String accountId) {
-        AccountDto accountDto = accountService.getAccountByAccountId(accountId);
-        AccountDetail accountDetail = modelMapper.map(accountDto, AccountDetail.class);
+    /**
+     * Creates up to {@link BatchSignupRequest#MAX_SIZE} accounts at once.
+     * The whole batch is rejected when any request is invalid; otherwise each account gets its own result.
+     *
+     * @param request
+     * @param bindingResult
+     * @return ResponseEntity
+     * @throws BindException
+     */
+    @PostMapping(value = "/batch",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+                 produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> createAccounts(@Valid @RequestBody BatchSignupRequest request,
+                                            BindingResult bindingResult) throws BindException {
+        if (bindingResult.hasErrors()) {
+            throw new BindException(bindingResult);
+        }
+        List<SignupResult> results = accountService.createAccounts(request.getAccounts());
+
+        List<BatchSignupResponse.Item> items = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            SignupResult result = results.get(i);
+            if (result.isCreated()) {
+                items.add(new BatchSignupResponse.Item(
+                        i, HttpStatus.CREATED.value(), accountMapper.toDetail(result.getAccount()), null));
+            } else {
+                items.add(new BatchSignupResponse.Item(i, HttpStatus.CONFLICT.value(), null, result.getError()));
+            }
+        }
+
+        String accountsUri = accountLinks.accounts();
+        EntityModel<BatchSignupResponse> content = EntityModel.of(new BatchSignupResponse(items));
+        content.add(Link.of(accountsUri + "/batch").withSelfRel());
+        content.add(Link.of(accountsUri).withRel("create-account"));
+        content.add(Link.of("/docs/index.html#resources-accounts-create-batch").withRel("profile"));
+        return ResponseEntity.ok(content);
+    }
+
+    /**
+     * Gets an account with its ETag and Last-Modified validators.
+     * When If-None-Match or If-Modified-Since shows that the client's copy is current, responds with 304
+     * before the representation is built. The account is usually served from the cache then.
+     * Unless roles are among the selected fields, an account that is not cached is read without its roles.
+     * With {@code Prefer: return=minimal}, the account is returned without links.
+     *
+     * @param accountId
+     * @param fields comma separated fields to include, all by default
+     * @param prefer
+     * @param webRequest
+     * @return ResponseEntity, with 304 and no body if the client's copy is current
+     */
+    @GetMapping(value = "/{accountId}", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> getAccountDetail(@PathVariable String accountId,
+                                              @RequestParam(required = false) String fields,
+                                              @RequestHeader(value = PREFER, required = false) String prefer,
+                                              WebRequest webRequest) {
+        Set<String> selectedFields = AccountFields.parse(fields);
+        boolean minimal = prefersMinimal(prefer);
+        AccountDto accountDto = AccountFields.includesRoles(selectedFields)
+                ? accountService.getAccountByAccountId(accountId)
+                : accountService.getAccountSummaryByAccountId(accountId);
+        MediaType mediaType = negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String eTag = AccountVersion.eTag(accountDto, representation(mediaType, selectedFields, minimal));
+        if (webRequest.checkNotModified(eTag, AccountVersion.lastModified(accountDto))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT, PREFER).build();
+        }
+        AccountDetail accountDetail = accountMapper.toDetail(accountDto);
 
-        EntityModel<AccountDetail> content = EntityModel.of(accountDetail);
-        Link selfLink = linkTo(getClass()).slash(accountId).withSelfRel();
+        if (minimal) {
+            return ResponseEntity.ok()
+                    .header(PREFERENCE_APPLIED, RETURN_MINIMAL)
+                    .varyBy(HttpHeaders.ACCEPT, PREFER)
+                    .body(AccountFields.project(accountDetail, selectedFields));
+        }
+        String accountsUri = accountLinks.accounts();
+        RepresentationModel<?> content = toModel(accountDetail, selectedFields);
+        Link selfLink = Link.of(AccountLinks.account(accountsUri, accountId)).withSelfRel();
         content.add(selfLink);
         content.add(Link.of("/docs/index.html#resources-account-detail").withRel("profile"));
-        content.add(linkTo(getClass()).withRel("get-account-list"));
-        content.add(linkTo(getClass()).withRel("create-account"));
+        content.add(Link.of(accountsUri).withRel("get-account-list"));
+        content.add(Link.of(accountsUri).withRel("create-account"));
         content.add(selfLink.withRel("update-account"));
         content.add(selfLink.withRel("delete-account"));
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT, PREFER).body(content);
+    }
+
+    /**
+     * Looks up to {@link AccountLookupRequest#MAX_SIZE} accounts by accountId at once, for other services
+     * that resolve lists of accounts. The response is a plain JSON array in the order of the request,
+     * without links and without the accountIds that do not exist.
+     *
+     * @param request
+     * @param bindingResult
+     * @param fields comma separated fields to include, all by default
+     * @return ResponseEntity
+     * @throws BindException
+     */
+    @PostMapping(value = "/lookup",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+                 produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> lookupAccounts(@Valid @RequestBody AccountLookupRequest request,
+                                            BindingResult bindingResult,
+                                            @RequestParam(required = false) String fields) throws BindException {
+        if (bindingResult.hasErrors()) {
+            throw new BindException(bindingResult);
+        }
+        Set<String> selectedFields = AccountFields.parse(fields);
+        List<AccountDto> accounts = accountService.getAccountsByAccountIds(request.getAccountIds());
+
+        List<Object> content = new ArrayList<>(accounts.size());
+        for (AccountDto account : accounts) {
+            content.add(AccountFields.project(accountMapper.toDetail(account), selectedFields));
+        }
         return ResponseEntity.ok(content);
     }
 
-    @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
+    /**
+     * Lists a page of accounts.
+     * Unless roles are among the selected fields, accounts are read without their roles.
+     * With {@code Prefer: return=minimal}, the page is returned without links.
+     *
+     * @param pageable
+     * @param after
+     * @param before
+     * @param fields comma separated fields to include, all by default
+     * @param prefer
+     * @param assembler
+     * @return ResponseEntity
+     */
+    @GetMapping(produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<?> getAccountList(Pageable pageable,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(required = false) String before,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestHeader(value = PREFER, required = false) String prefer,
                                             PagedResourcesAssembler<AccountDto> assembler) {
-        Page<AccountDto> accountList = accountService.getAccountList(pageable);
+        Set<String> selectedFields = AccountFields.parse(fields);
+        if (after != null || before != null) {
+            return getAccountListByCursor(after, before, pageable.getPageSize(), selectedFields);
+        }
+        Page<AccountDto> accountList = AccountFields.includesRoles(selectedFields)
+                ? accountService.getAccountList(pageable)
+                : accountService.getAccountSummaryList(pageable);
+
+        if (prefersMinimal(prefer)) {
+            List<Object> accounts = new ArrayList<>(accountList.getNumberOfElements());
+            for (AccountDto account : accountList) {
+                accounts.add(toModel(accountMapper.toDetail(account), selectedFields));
+            }
+            if (accounts.isEmpty()) {
+                accounts.add(new EmbeddedWrappers(false).emptyCollectionOf(AccountDetail.class));
+            }
+            PagedModel.PageMetadata metadata = new PagedModel.PageMetadata(accountList.getSize(),
+                    accountList.getNumber(), accountList.getTotalElements(), accountList.getTotalPages());
+            return ResponseEntity.ok()
+                    .header(PREFERENCE_APPLIED, RETURN_MINIMAL)
+                    .varyBy(HttpHeaders.ACCEPT, PREFER)
+                    .body(PagedModel.of(accounts, metadata));
+        }
 
+        String accountsUri = accountLinks.accounts();
         PagedModel<?> content = null;
         if (!accountList.hasContent()) {
             content = assembler.toEmptyModel(accountList, AccountDetail.class);
         } else {
             content = assembler.toModel(accountList, account -> {
-                EntityModel<AccountDetail> model = EntityModel.of(modelMapper.map(account, AccountDetail.class));
-                model.add(linkTo(getClass()).slash(account.getId()).withSelfRel());
+                RepresentationModel<?> model = toModel(accountMapper.toDetail(account), selectedFields);
+                model.add(Link.of(AccountLinks.account(accountsUri, account.getId())).withSelfRel());
                 return model;
             });
         }
 
-        Link selfLink = linkTo(getClass()).withSelfRel();
+        Link selfLink = Link.of(accountsUri).withSelfRel();
         content.add(selfLink.withRel("create-account"));
         content.add(Link.of("/docs/index.html#resources-accounts-list").withRel("profile"));
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT, PREFER).body(content);
+    }
+
+    /**
+     * Lists accounts in id order starting after (or ending before) the account of a cursor.
+     * Each page is found through the primary key index, so deep pages are as fast as the first one,
+     * and no count query is issued.
+     *
+     * @param after cursor to list accounts after, or empty to start from the first account
+     * @param before cursor to list accounts before
+     * @param size
+     * @param fields selected fields, or null for all of them
+     * @return ResponseEntity
+     */
+    private ResponseEntity<?> getAccountListByCursor(String after, String before, int size, Set<String> fields) {
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("Only one of 'after' and 'before' can be given");
+        }
+        boolean forward = after != null;
+        long cursor = AccountCursor.decode(forward ? after : before);
+        Slice<AccountDto> accountList = forward
+                ? accountService.getAccountListAfter(cursor, size)
+                : accountService.getAccountListBefore(cursor, size);
+
+        String accountsUri = accountLinks.accounts();
+        CollectionModel<?> content;
+        if (!accountList.hasContent()) {
+            content = CollectionModel.of(List.of(new EmbeddedWrappers(false).emptyCollectionOf(AccountDetail.class)));
+        } else {
+            List<RepresentationModel<?>> accounts = new ArrayList<>(accountList.getNumberOfElements());
+            for (AccountDto account : accountList) {
+                RepresentationModel<?> model = toModel(accountMapper.toDetail(account), fields);
+                model.add(Link.of(AccountLinks.account(accountsUri, account.getAccountId())).withSelfRel());
+                accounts.add(model);
+            }
+            content = CollectionModel.of(accounts);
+
+            List<AccountDto> accountContent = accountList.getContent();
+            Long firstId = accountContent.get(0).getId();
+            Long lastId = accountContent.get(accountContent.size() - 1).getId();
+            boolean hasPrevious = forward ? cursor != AccountCursor.START : accountList.hasNext();
+            boolean hasNext = !forward || accountList.hasNext();
+            if (hasPrevious) {
+                content.add(cursorLink("before", AccountCursor.encode(firstId), size, IanaLinkRelations.PREV));
+            }
+            if (hasNext) {
+                content.add(cursorLink("after", AccountCursor.encode(lastId), size, IanaLinkRelations.NEXT));
+            }
+        }
+
+        content.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        content.add(cursorLink("after", "", size, IanaLinkRelations.FIRST));
+        content.add(Link.of(accountsUri).withRel("create-account"));
+        content.add(Link.of("/docs/index.html#resources-accounts-list-by-cursor").withRel("profile"));
         return ResponseEntity.ok(content);
     }
 
-    @PutMapping(value = "/{accountId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaTypes.HAL_JSON_VALUE)
+    /**
+     * @param account
+     * @param fields selected fields, or null for all of them
+     * @return representation of the account to add links to
+     */
+    private RepresentationModel<?> toModel(AccountDetail account, Set<String> fields) {
+        if (fields == null) {
+            return EntityModel.of(account);
+        }
+        return new ProjectedAccount(AccountFields.select(account, fields));
+    }
+
+    /**
+     * @param mediaType
+     * @param fields selected fields, or null for all of them
+     * @param minimal
+     * @return name of the representation, empty for the default one
+     */
+    private static String representation(MediaType mediaType, Set<String> fields, boolean minimal) {
+        String representation = fields == null ? "" : String.join(",", fields);
+        if (minimal) {
+            representation = RETURN_MINIMAL + ";" + representation;
+        }
+        if (!ACCOUNT_MEDIA_TYPES.get(0).equalsTypeAndSubtype(mediaType)) {
+            representation = mediaType.getType() + "/" + mediaType.getSubtype() + ";" + representation;
+        }
+        return representation;
+    }
+
+    /**
+     * Picks the media type of a single account representation from an Accept header, like content negotiation does.
+     * Content negotiation only happens once the handler has returned, but the ETag has to tell formats apart before.
+     *
+     * @param accept Accept header value, or null if the header is absent
+     * @return MediaType
+     */
+    static MediaType negotiate(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return ACCOUNT_MEDIA_TYPES.get(0);
+        }
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType mediaType : ACCOUNT_MEDIA_TYPES) {
+                if (acceptedType.getQualityValue() > 0 && acceptedType.isCompatibleWith(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return ACCOUNT_MEDIA_TYPES.get(0);
+    }
+
+    /**
+     * @param prefer Prefer header value, or null if the header is absent
+     * @return whether the client prefers a minimal representation
+     */
+    static boolean prefersMinimal(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : StringUtils.commaDelimitedListToStringArray(prefer)) {
+            if (preference.trim().equalsIgnoreCase(RETURN_MINIMAL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Link cursorLink(String name, String cursor, int size, LinkRelation relation) {
+        String href = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after")
+                .replaceQueryParam("before")
+                .replaceQueryParam("page")
+                .replaceQueryParam(name, cursor)
+                .replaceQueryParam("size", size)
+                .toUriString();
+        return Link.of(href, relation);
+    }
+
+    /**
+     * Writes all accounts as newline delimited JSON while they are read from the database.
+     * Unlike the paged list, no count query is issued and no page is built in memory.
+     *
+     * @param response
+     * @throws IOException
+     */
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public void exportAccounts(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // Every line ends with a newline, so the default root value separator (a space) is turned off
+        try (JsonGenerator generator = objectMapper.writer()
+                .withRootValueSeparator("")
+                .createGenerator(response.getOutputStream())) {
+            accountService.exportAccounts(account -> {
+                try {
+                    generator.writeObject(accountMapper.toDetail(account));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Updates an account. With If-Match, the update is applied only if the account still has one of the given ETags.
+     * Without it, an update that loses a race with a concurrent one is retried, since it only sets the given values.
+     *
+     * @param accountId
+     * @param ifMatch
+     * @param accept
+     * @param request
+     * @param bindingResult
+     * @return ResponseEntity with the ETag of the updated account
+     * @throws BindException
+     */
+    @PutMapping(value = "/{accountId}",
+                consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+                produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<?> updateAccount(@PathVariable String accountId,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
                                            @Valid @RequestBody AccountUpdateRequest request,
                                            BindingResult bindingResult) throws BindException {
         if (bindingResult.hasErrors()) {
             throw new BindException(bindingResult);
         }
         AccountDto accountDto = accountService.getAccountByAccountId(accountId);
-        AccountDto updatedAccountDto = accountService.updateAccount(accountDto.getId(), request);
+        Long expectedVersion = AccountVersion.checkIfMatch(ifMatch, accountDto);
+        AccountDto updatedAccountDto = expectedVersion != null
+                ? accountService.updateAccount(accountDto.getId(), expectedVersion, request)
+                : optimisticLockRetry.run(() -> accountService.updateAccount(accountDto.getId(), request));
 
-        EntityModel<AccountDetail> content = EntityModel.of(modelMapper.map(updatedAccountDto, AccountDetail.class));
-        Link selfLink = linkTo(getClass()).slash(updatedAccountDto.getId()).withSelfRel();
+        String accountsUri = accountLinks.accounts();
+        EntityModel<AccountDetail> content = EntityModel.of(accountMapper.toDetail(updatedAccountDto));
+        Link selfLink = Link.of(AccountLinks.account(accountsUri, updatedAccountDto.getId())).withSelfRel();
         content.add(selfLink);
         content.add(Link.of("/docs/index.html#resources-account-update").withRel("profile"));
-        content.add(linkTo(getClass()).withRel("get-account-list"));
-        content.add(linkTo(getClass()).withRel("create-account"));
-        content.add(linkTo(getClass()).slash(accountId).withRel("get-account-detail"));
-        content.add(linkTo(getClass()).slash(accountId).withRel("delete-account"));
-        return ResponseEntity.ok().body(content);
+        content.add(Link.of(accountsUri).withRel("get-account-list"));
+        content.add(Link.of(accountsUri).withRel("create-account"));
+        content.add(Link.of(AccountLinks.account(accountsUri, accountId)).withRel("get-account-detail"));
+        content.add(Link.of(AccountLinks.account(accountsUri, accountId)).withRel("delete-account"));
+        return ResponseEntity.ok()
+                .eTag(AccountVersion.eTag(updatedAccountDto, representation(negotiate(accept), null, false)))
+                .lastModified(AccountVersion.lastModified(updatedAccountDto))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(content);
     }
 
-    @DeleteMapping(value = "/{accountId}", produces = MediaTypes.HAL_JSON_VALUE)
-    public ResponseEntity<?> deleteAccount(@PathVariable String accountId) {
+    /**
+     * Deletes an account. With If-Match, the account is deleted only if it still has one of the given ETags.
+     *
+     * @param accountId
+     * @param ifMatch
+     * @return ResponseEntity
+     */
+    @DeleteMapping(value = "/{accountId}", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> deleteAccount(@PathVariable String accountId,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         AccountDto accountDto = accountService.getAccountByAccountId(accountId);
-        accountService.deleteAccount(accountDto.getId());
+        Long expectedVersion = AccountVersion.checkIfMatch(ifMatch, accountDto);
+        accountService.deleteAccount(accountDto.getId(), expectedVersion);
 
+        String accountsUri = accountLinks.accounts();
         RepresentationModel<?> content = RepresentationModel.of(null);
         content.add(Link.of("/docs/index.html#resources-account-delete").withRel("profile"));
-        content.add(linkTo(getClass()).withRel("create-account"));
-        content.add(linkTo(getClass()).withRel("get-account-list"));
+        content.add(Link.of(accountsUri).withRel("create-account"));
+        content.add(Link.of(accountsUri).withRel("get-account-list"));
         return ResponseEntity.ok().body(content);
     }
 
@@ -0,0 +1,42 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of the keyset paginated account list.
+ * A cursor wraps the id of the account that the next or previous page starts after.
+ */
+final class AccountCursor {
+
+    /**
+     * Id before the first account. An empty cursor starts from here.
+     */
+    static final long START = 0L;
+
+    private AccountCursor() {
+    }
+
+    static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor
+     * @return id of the account
+     * @throws IllegalArgumentException if the cursor was not issued by {@link #encode(Long)}
+     */
+    static long decode(String cursor) {
+        if (cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import me.ghwn.netflix.accountservice.dto.AccountDetail;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field projection of account representations, selected with a comma separated {@code fields} parameter.
+ */
+final class AccountFields {
+
+    static final List<String> ALL = List.of("id", "accountId", "email", "active", "roles", "createdAt", "updatedAt");
+
+    private AccountFields() {
+    }
+
+    /**
+     * @param fields comma separated field names, or null
+     * @return selected fields, or null to select all of them
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    static Set<String> parse(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>(StringUtils.commaDelimitedListToSet(fields.replace(" ", "")));
+        selected.remove("");
+        for (String field : selected) {
+            if (!ALL.contains(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "', expected one of " + ALL);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be selected, among " + ALL);
+        }
+        return selected;
+    }
+
+    /**
+     * @param fields selected fields, or null for all of them
+     * @return whether the roles of accounts are needed
+     */
+    static boolean includesRoles(Set<String> fields) {
+        return fields == null || fields.contains("roles");
+    }
+
+    /**
+     * @param account
+     * @param fields selected fields, or null to select all of them
+     * @return the account itself, or the values of the selected fields only
+     */
+    static Object project(AccountDetail account, Set<String> fields) {
+        return fields == null ? account : select(account, fields);
+    }
+
+    /**
+     * Reads the selected fields from their getters, so that the account is serialized only once,
+     * by the response writer, in the same way as the whole {@link AccountDetail}.
+     *
+     * @param account
+     * @param fields selected fields
+     * @return values of the selected fields, in the order of {@link #ALL}
+     */
+    static Map<String, Object> select(AccountDetail account, Set<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : ALL) {
+            if (fields.contains(field)) {
+                values.put(field, value(account, field));
+            }
+        }
+        return values;
+    }
+
+    private static Object value(AccountDetail account, String field) {
+        switch (field) {
+            case "id":
+                return account.getId();
+            case "accountId":
+                return account.getAccountId();
+            case "email":
+                return account.getEmail();
+            case "active":
+                return account.isActive();
+            case "roles":
+                return account.getRoles();
+            case "createdAt":
+                return account.getCreatedAt();
+            case "updatedAt":
+                return account.getUpdatedAt();
+            default:
+                throw new IllegalArgumentException("Unknown field '" + field + "', expected one of " + ALL);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Base URI of the account resources, built by {@code WebMvcLinkBuilder} once per origin instead of once per link.
+ * The origin is everything of the request that the built URI depends on: scheme, host, port, context path
+ * and forwarded headers. Links to single accounts only append the accountId to it.
+ */
+@Component
+public class AccountLinks {
+
+    private static final String[] FORWARDED_HEADERS = {
+            "Forwarded", "X-Forwarded-Proto", "X-Forwarded-Host", "X-Forwarded-Port", "X-Forwarded-Prefix"
+    };
+
+    // Bounded, since the Host header is chosen by clients
+    private final Cache<String, String> baseUris = Caffeine.newBuilder()
+            .maximumSize(256)
+            .build();
+
+    /**
+     * @return absolute URI of the account collection for the current request
+     */
+    public String accounts() {
+        return baseUris.get(origin(currentRequest()), origin -> linkTo(AccountController.class).withSelfRel().getHref());
+    }
+
+    /**
+     * @param accounts URI of the account collection, as returned by {@link #accounts()}
+     * @param accountId id or accountId
+     * @return URI of the account
+     */
+    public static String account(String accounts, Object accountId) {
+        return accounts + "/" + accountId;
+    }
+
+    private static String origin(HttpServletRequest request) {
+        StringBuilder origin = new StringBuilder(64)
+                .append(request.getScheme()).append("://")
+                .append(request.getServerName()).append(':')
+                .append(request.getServerPort())
+                .append(request.getContextPath());
+        for (String header : FORWARDED_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                origin.append('\n').append(header).append(':').append(value);
+            }
+        }
+        return origin.toString();
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+    }
+
+}
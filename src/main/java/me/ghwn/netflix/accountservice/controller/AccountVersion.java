@@ -0,0 +1,100 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.exception.PreconditionFailedException;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators of an account representation for conditional requests.
+ * The entity tag is derived from the id and the version column, so it changes on every update,
+ * also when two updates fall within the same millisecond.
+ */
+final class AccountVersion {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private AccountVersion() {
+    }
+
+    /**
+     * @param account
+     * @return strong entity tag, quoted
+     */
+    static String eTag(AccountDto account) {
+        return eTag(account, "");
+    }
+
+    /**
+     * @param account
+     * @param variant distinguishes other representations of the same version, e.g. CBOR or with selected fields only
+     * @return strong entity tag, quoted
+     */
+    static String eTag(AccountDto account, String variant) {
+        String tag = versionTag(account);
+        if (!variant.isEmpty()) {
+            tag += "-" + Integer.toHexString(variant.hashCode());
+        }
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * @param account
+     * @return last modification time in milliseconds since the epoch, or -1 if unknown
+     */
+    static long lastModified(AccountDto account) {
+        Instant modifiedAt = modifiedAt(account);
+        return modifiedAt != null ? modifiedAt.toEpochMilli() : -1L;
+    }
+
+    /**
+     * Checks an If-Match header against the current version of an account.
+     * Only the version part of an entity tag is compared, so a tag of any representation of the current version
+     * matches, e.g. the tag of a CBOR response for a JSON update. The encoding suffix that
+     * {@link me.ghwn.netflix.accountservice.web.ResponseCompressionFilter} adds to the tag of a compressed body,
+     * e.g. {@code "1-2-gzip"}, is stripped along with the representation variant.
+     * Weak entity tags never match, as required for If-Match.
+     *
+     * @param ifMatch header value, or null if the header is absent
+     * @param account
+     * @return version the request is conditional on, or null if it is unconditional
+     * @throws PreconditionFailedException if the header is present and no entity tag matches
+     */
+    static Long checkIfMatch(String ifMatch, AccountDto account) {
+        if (!StringUtils.hasText(ifMatch)) {
+            return null;
+        }
+        String versionTag = versionTag(account);
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return null;
+            }
+            if (!candidate.startsWith(WEAK_PREFIX) && isOfVersion(candidate, versionTag)) {
+                return account.getVersion();
+            }
+        }
+        throw new PreconditionFailedException();
+    }
+
+    private static boolean isOfVersion(String eTag, String versionTag) {
+        if (eTag.length() < versionTag.length() + 2 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            return false;
+        }
+        String tag = eTag.substring(1, eTag.length() - 1);
+        return tag.equals(versionTag) || tag.startsWith(versionTag + "-");
+    }
+
+    private static String versionTag(AccountDto account) {
+        return account.getId() + "-" + Long.toHexString(account.getVersion() != null ? account.getVersion() : 0L);
+    }
+
+    private static Instant modifiedAt(AccountDto account) {
+        LocalDateTime modifiedAt = account.getUpdatedAt() != null ? account.getUpdatedAt() : account.getCreatedAt();
+        return modifiedAt != null ? modifiedAt.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+
+}
@@ -0,0 +1,70 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import me.ghwn.netflix.accountservice.dto.TokenIntrospectionRequest;
+import me.ghwn.netflix.accountservice.security.AccessTokenIssuer;
+import me.ghwn.netflix.accountservice.security.AccessTokenVerifier;
+import me.ghwn.netflix.accountservice.security.VerifiedAccessToken;
+import org.springframework.http.MediaType;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/tokens")
+@RestController
+public class TokenController {
+
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Verifies a batch of access tokens in one request.
+     * Results are written in the order of the tokens while they are verified,
+     * so the response is never built in memory as a whole.
+     *
+     * @param request
+     * @param bindingResult
+     * @param response
+     * @throws BindException
+     * @throws IOException
+     */
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public void introspect(@Valid @RequestBody TokenIntrospectionRequest request,
+                           BindingResult bindingResult,
+                           HttpServletResponse response) throws BindException, IOException {
+        if (bindingResult.hasErrors()) {
+            throw new BindException(bindingResult);
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+            for (String token : request.getTokens()) {
+                Optional<VerifiedAccessToken> verified = token != null
+                        ? accessTokenVerifier.verify(token)
+                        : Optional.empty();
+                generator.writeStartObject();
+                generator.writeBooleanField("active", verified.isPresent());
+                if (verified.isPresent()) {
+                    generator.writeStringField(AccessTokenIssuer.ACCOUNT_ID_CLAIM, verified.get().getAccountId());
+                    generator.writeNumberField("exp", verified.get().getExpiresAt());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package me.ghwn.netflix.accountservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Remembers recently written accounts, so that reading them again goes to the primary
+ * until the replica is expected to have caught up (account.datasource.replica-lag-tolerance).
+ * Without this, a read right after a write could load, and cache, the replica's stale copy.
+ * Writes of other instances are learned from their cache evictions on the bus, see
+ * {@link me.ghwn.netflix.accountservice.cache.AccountCacheEvictionListener}.
+ * When no replica is configured, every query goes to the primary anyway.
+ */
+@Component
+public class PrimaryStickiness {
+
+    private final Cache<Object, Boolean> recentWrites;
+
+    public PrimaryStickiness(Environment env) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(env.getProperty("account.datasource.recent-writes.maximum-size", Long.class, 100_000L))
+                .expireAfterWrite(env.getProperty("account.datasource.replica-lag-tolerance", Duration.class,
+                        Duration.ofSeconds(1)))
+                .build();
+    }
+
+    /**
+     * Marks keys of a written account, e.g. its id, accountId and email.
+     * The window starts again when the surrounding transaction commits.
+     *
+     * @param keys
+     */
+    public void stick(Object... keys) {
+        record(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(keys);
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks keys of accounts that another instance has written, as reported over the bus.
+     * The window starts when the report arrives, which is after the write was committed.
+     *
+     * @param keys
+     */
+    public void stickAll(Collection<?> keys) {
+        if (keys != null) {
+            keys.forEach(key -> record(key));
+        }
+    }
+
+    /**
+     * @param key
+     * @return true if the account of the key was written within the replica lag tolerance
+     */
+    public boolean isRecentlyWritten(Object key) {
+        return recentWrites.getIfPresent(key) != null;
+    }
+
+    /**
+     * Runs a query for an account, on the primary if the account was written recently.
+     *
+     * @param key
+     * @param query
+     * @return result of the query
+     */
+    public <T> T read(Object key, Supplier<T> query) {
+        if (isRecentlyWritten(key)) {
+            return ReadWriteRoutingDataSource.onPrimary(query);
+        }
+        return query.get();
+    }
+
+    /**
+     * Runs a query for several accounts, on the primary if any of them was written recently.
+     *
+     * @param keys
+     * @param query
+     * @return result of the query
+     */
+    public <T> T readAll(Collection<?> keys, Supplier<T> query) {
+        if (!recentWrites.getAllPresent(keys).isEmpty()) {
+            return ReadWriteRoutingDataSource.onPrimary(query);
+        }
+        return query.get();
+    }
+
+    private void record(Object... keys) {
+        for (Object key : keys) {
+            if (key != null) {
+                recentWrites.put(key, Boolean.TRUE);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package me.ghwn.netflix.accountservice.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Routes connections of read-only transactions to the replica, and all others to the primary.
+ * The route is decided when a connection is first used, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}. Otherwise the connection
+ * would be taken before the transaction is marked as read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> primaryOnly = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Runs a query on the primary even in a read-only transaction.
+     * Only takes effect if the transaction has not used a connection yet.
+     *
+     * @param query
+     * @return result of the query
+     */
+    public static <T> T onPrimary(Supplier<T> query) {
+        boolean previous = primaryOnly.get();
+        primaryOnly.set(true);
+        try {
+            return query.get();
+        } finally {
+            primaryOnly.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !primaryOnly.get()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+}
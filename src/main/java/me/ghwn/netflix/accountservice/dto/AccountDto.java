@@ -29,4 +29,6 @@ public class AccountDto {
 
     private LocalDateTime updatedAt;
 
+    private Long version;
+
 }
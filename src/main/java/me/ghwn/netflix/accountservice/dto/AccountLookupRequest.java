@@ -0,0 +1,22 @@
+package me.ghwn.netflix.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@AllArgsConstructor
+@Getter @Setter @NoArgsConstructor
+public class AccountLookupRequest {
+
+    public static final int MAX_SIZE = 500;
+
+    @NotEmpty(message = "At least one account ID is required")
+    @Size(max = MAX_SIZE, message = "Up to " + MAX_SIZE + " accounts can be looked up at once")
+    private List<@NotEmpty String> accountIds;
+
+}
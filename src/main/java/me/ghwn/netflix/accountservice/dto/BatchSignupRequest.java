@@ -0,0 +1,24 @@
+package me.ghwn.netflix.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@AllArgsConstructor
+@Getter @Setter @NoArgsConstructor
+public class BatchSignupRequest {
+
+    public static final int MAX_SIZE = 100;
+
+    @Valid
+    @NotEmpty(message = "At least one account is required")
+    @Size(max = MAX_SIZE, message = "Up to " + MAX_SIZE + " accounts can be created at once")
+    private List<SignupRequest> accounts;
+
+}
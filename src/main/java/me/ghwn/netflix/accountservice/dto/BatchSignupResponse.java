@@ -0,0 +1,30 @@
+package me.ghwn.netflix.accountservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class BatchSignupResponse {
+
+    private final List<Item> results;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @AllArgsConstructor
+    @Getter
+    public static class Item {
+
+        private final int index;
+
+        private final int status;
+
+        private final AccountDetail account;
+
+        private final String message;
+
+    }
+
+}
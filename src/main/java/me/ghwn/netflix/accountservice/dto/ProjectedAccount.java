@@ -0,0 +1,26 @@
+package me.ghwn.netflix.accountservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.util.Map;
+
+/**
+ * Account representation with a selected subset of the fields of {@link AccountDetail}.
+ */
+@Relation(collectionRelation = "accounts")
+public class ProjectedAccount extends RepresentationModel<ProjectedAccount> {
+
+    private final Map<String, Object> fields;
+
+    public ProjectedAccount(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+}
@@ -0,0 +1,30 @@
+package me.ghwn.netflix.accountservice.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one signup in a batch. Either the created account or the reason it was not created is set.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class SignupResult {
+
+    private final AccountDto account;
+
+    private final String error;
+
+    public static SignupResult created(AccountDto account) {
+        return new SignupResult(account, null);
+    }
+
+    public static SignupResult rejected(String error) {
+        return new SignupResult(null, error);
+    }
+
+    public boolean isCreated() {
+        return account != null;
+    }
+
+}
@@ -1,23 +1,34 @@
 package me.ghwn.netflix.accountservice.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.Set;
 
 @EqualsAndHashCode(of = "id", callSuper = false)
-@AllArgsConstructor
 @Getter @Setter @NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = Account.EMAIL_CONSTRAINT, columnNames = "email"))
 @Entity
 public class Account extends TimestampedEntity {
 
-    @Id @GeneratedValue
+    /**
+     * Name of the unique index on email, so that a violation of it can be told apart from other integrity violations.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_account_email";
+
+    /**
+     * Ids are allocated 50 at a time by the pooled optimizer, so that inserts can be batched.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_id_seq")
+    @SequenceGenerator(name = "account_id_seq", sequenceName = "account_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String accountId;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -25,8 +36,29 @@ public class Account extends TimestampedEntity {
 
     private boolean active = true;
 
+    /**
+     * Roles of accounts in a query result are loaded together, one query per batch instead of one per account.
+     * Single account lookups in {@link me.ghwn.netflix.accountservice.repository.AccountRepository} join them instead.
+     */
+    @BatchSize(size = 100)
     @Enumerated(EnumType.STRING)
     @ElementCollection(fetch = FetchType.EAGER)
     private Set<AccountRole> roles = Set.of(AccountRole.USER);
 
+    /**
+     * Checked and incremented by every update and delete, so that a write based on a stale copy fails
+     * instead of silently overwriting a concurrent one.
+     */
+    @Version
+    private Long version;
+
+    public Account(Long id, String accountId, String email, String password, boolean active, Set<AccountRole> roles) {
+        this.id = id;
+        this.accountId = accountId;
+        this.email = email;
+        this.password = password;
+        this.active = active;
+        this.roles = roles;
+    }
+
 }
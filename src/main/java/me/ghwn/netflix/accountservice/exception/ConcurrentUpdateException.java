@@ -0,0 +1,13 @@
+package me.ghwn.netflix.accountservice.exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException() {
+        this("Account has been updated concurrently");
+    }
+
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package me.ghwn.netflix.accountservice.exception;
+
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException() {
+        this("Email already exists");
+    }
+
+    public DuplicateEmailException(String message) {
+        super(message);
+    }
+
+}
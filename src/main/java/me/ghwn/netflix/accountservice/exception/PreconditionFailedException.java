@@ -0,0 +1,13 @@
+package me.ghwn.netflix.accountservice.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException() {
+        this("Account has been modified");
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
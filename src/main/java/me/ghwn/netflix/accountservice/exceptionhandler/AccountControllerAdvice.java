@@ -2,8 +2,17 @@ package me.ghwn.netflix.accountservice.exceptionhandler;
 
 import io.jsonwebtoken.JwtException;
 import me.ghwn.netflix.accountservice.controller.IndexController;
+import me.ghwn.netflix.accountservice.entity.Account;
 import me.ghwn.netflix.accountservice.exception.AccountNotFoundException;
+import me.ghwn.netflix.accountservice.exception.ConcurrentUpdateException;
+import me.ghwn.netflix.accountservice.exception.DuplicateEmailException;
+import me.ghwn.netflix.accountservice.exception.PasswordHashingRejectedException;
+import me.ghwn.netflix.accountservice.exception.PreconditionFailedException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,6 +21,8 @@ import org.springframework.validation.BindException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.Locale;
+
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -53,10 +64,66 @@ public class AccountControllerAdvice {
         return makeErrorResponse(e, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<?> handleDuplicateEmailException(DuplicateEmailException e) {
+        return makeErrorResponse(e, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles a violation of the unique index on email, when two signups with the same email race past the duplicate check.
+     * Any other integrity violation, e.g. of a NOT NULL or length constraint, is a bug and is handled as a server error.
+     *
+     * @param e
+     * @return ResponseEntity
+     */
+    @ExceptionHandler
+    public ResponseEntity<?> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if (!violatesEmailConstraint(e)) {
+            return handleException(e);
+        }
+        return makeErrorResponse(new DuplicateEmailException(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles an update or delete that lost a race with a concurrent update of the same account.
+     * The client should read the account again and decide whether to repeat its request.
+     *
+     * @param e
+     * @return ResponseEntity
+     */
+    @ExceptionHandler
+    public ResponseEntity<?> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return makeErrorResponse(new ConcurrentUpdateException(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<?> handlePreconditionFailedException(PreconditionFailedException e) {
+        return makeErrorResponse(e, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<?> handlePasswordHashingRejectedException(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(makeErrorContent(e));
+    }
+
+    private static boolean violatesEmailConstraint(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(Account.EMAIL_CONSTRAINT);
+    }
+
     private ResponseEntity<?> makeErrorResponse(Exception e, HttpStatus httpStatus) {
+        return ResponseEntity.status(httpStatus).body(makeErrorContent(e));
+    }
+
+    private EntityModel<Exception> makeErrorContent(Exception e) {
         EntityModel<Exception> content = EntityModel.of(e);
         content.add(linkTo(methodOn(IndexController.class).index()).withRel("index"));
-        return ResponseEntity.status(httpStatus).body(content);
+        return content;
     }
 
 }
@@ -0,0 +1,54 @@
+package me.ghwn.netflix.accountservice.mapping;
+
+import me.ghwn.netflix.accountservice.dto.AccountDetail;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.repository.AccountSummary;
+import org.mapstruct.*;
+
+import java.util.HashSet;
+
+/**
+ * Account mappings generated at compile time.
+ * Null source properties are skipped, so that entity defaults and existing values are kept
+ * in the same way as the {@code modelMapper()} bean.
+ */
+@Mapper(componentModel = "spring",
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface AccountMapper {
+
+    AccountDto toDto(Account account);
+
+    AccountDto toDto(AccountSummary summary);
+
+    AccountDetail toDetail(AccountDto accountDto);
+
+    Account toEntity(SignupRequest request);
+
+    /**
+     * Merges the non-null fields of the request into the account.
+     *
+     * @param request
+     * @param account
+     */
+    @Mapping(target = "roles", ignore = true)
+    void update(AccountUpdateRequest request, @MappingTarget Account account);
+
+    /**
+     * Replaces roles instead of merging them, because the default roles of a new account are immutable.
+     *
+     * @param request
+     * @param account
+     */
+    @AfterMapping
+    default void replaceRoles(AccountUpdateRequest request, @MappingTarget Account account) {
+        if (request.getRoles() != null) {
+            account.setRoles(new HashSet<>(request.getRoles()));
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package me.ghwn.netflix.accountservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@link me.ghwn.netflix.accountservice.service.AccountService} call as account.service
+ * and every {@link me.ghwn.netflix.accountservice.mapping.AccountMapper} call as account.mapping.
+ * Tags are limited to the method name and the exception class, so the number of series stays fixed.
+ * Histogram buckets and SLOs are configured under management.metrics.distribution.
+ */
+@RequiredArgsConstructor
+@Aspect
+@Component
+public class AccountOperationMetrics {
+
+    private static final String SERVICE = "account.service";
+    private static final String MAPPING = "account.mapping";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    // Mapper advice runs once per list element, so timers are looked up without building or registering them.
+    private final ConcurrentMap<Method, Timer> serviceTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Timer> mappingTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, Timer> failureTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(* me.ghwn.netflix.accountservice.service.AccountService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE, serviceTimers, joinPoint);
+    }
+
+    @Around("execution(* me.ghwn.netflix.accountservice.mapping.AccountMapper.*(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(MAPPING, mappingTimers, joinPoint);
+    }
+
+    private Object time(String name, ConcurrentMap<Method, Timer> timers, ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = meterRegistry.config().clock().monotonicTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.computeIfAbsent(method, m -> timer(name, m.getName(), NO_EXCEPTION))
+                    .record(meterRegistry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            failureTimers.computeIfAbsent(List.of(name, method, e.getClass()),
+                            key -> timer(name, method.getName(), e.getClass().getSimpleName()))
+                    .record(meterRegistry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, String method, String exception) {
+        return Timer.builder(name)
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+}
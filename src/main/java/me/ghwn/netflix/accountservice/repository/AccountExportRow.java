@@ -0,0 +1,28 @@
+package me.ghwn.netflix.accountservice.repository;
+
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per account role, read by {@link AccountRepository#streamAllForExport()}.
+ */
+public interface AccountExportRow {
+
+    Long getId();
+
+    String getAccountId();
+
+    String getEmail();
+
+    boolean isActive();
+
+    AccountRole getRole();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+
+}
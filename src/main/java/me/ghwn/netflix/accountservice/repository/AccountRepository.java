@@ -1,14 +1,86 @@
 package me.ghwn.netflix.accountservice.repository;
 
 import me.ghwn.netflix.accountservice.entity.Account;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
+    int EXPORT_FETCH_SIZE = 500;
+
+    @EntityGraph(attributePaths = "roles")
+    @Override
+    Optional<Account> findById(Long id);
+
+    @EntityGraph(attributePaths = "roles")
     Optional<Account> findByAccountId(String accountId);
 
+    @EntityGraph(attributePaths = "roles")
     Optional<Account> findByEmail(String email);
 
+    Optional<AccountSummary> findSummaryByAccountId(String accountId);
+
+    Page<AccountSummary> findAllSummariesBy(Pageable pageable);
+
+    boolean existsByEmail(String email);
+
+    /**
+     * Finds accounts by accountIds with their roles in a single query.
+     * The distinct only removes the duplicates of the join from the result and is not sent to the database.
+     *
+     * @param accountIds
+     * @return accounts in no particular order
+     */
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct a from Account a left join fetch a.roles where a.accountId in :accountIds")
+    List<Account> findAllByAccountIdIn(Collection<String> accountIds);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select a.email from Account a")
+    Stream<String> streamAllEmails();
+
+    @Query("select a.email from Account a where a.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    Slice<Account> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Account> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Streams all accounts in id order through a forward-only cursor, one row per role.
+     * Rows are plain values rather than managed entities, so nothing accumulates in the persistence context.
+     * The stream must be consumed and closed within a transaction.
+     *
+     * @return Stream of rows
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a.id as id, a.accountId as accountId, a.email as email, a.active as active, r as role, " +
+            "a.createdAt as createdAt, a.updatedAt as updatedAt, a.version as version " +
+            "from Account a left join a.roles r order by a.id")
+    Stream<AccountExportRow> streamAllForExport();
+
 }
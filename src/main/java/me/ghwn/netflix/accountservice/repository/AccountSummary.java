@@ -0,0 +1,25 @@
+package me.ghwn.netflix.accountservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Account columns without the password and the roles.
+ * Queries returning this projection select only these columns and do not touch the roles table.
+ */
+public interface AccountSummary {
+
+    Long getId();
+
+    String getAccountId();
+
+    String getEmail();
+
+    boolean isActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+
+}
@@ -0,0 +1,71 @@
+package me.ghwn.netflix.accountservice.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Authenticates requests that carry an access token, without loading the account.
+ * Requests without a token pass through unauthenticated; requests with an invalid or expired token get 401.
+ */
+public class AccessTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String ACCESS_TOKEN_HEADER_NAME = "access-token";
+
+    private static final byte[] INVALID_TOKEN_BODY =
+            "{\"errors\":[{\"message\":\"Invalid or expired access token\"}]}".getBytes(StandardCharsets.UTF_8);
+
+    private final AccessTokenVerifier accessTokenVerifier;
+
+    public AccessTokenAuthenticationFilter(AccessTokenVerifier accessTokenVerifier) {
+        this.accessTokenVerifier = accessTokenVerifier;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = request.getHeader(ACCESS_TOKEN_HEADER_NAME);
+        if (token == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<VerifiedAccessToken> verified = accessTokenVerifier.verify(token);
+        if (verified.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(INVALID_TOKEN_BODY);
+            return;
+        }
+
+        AccountContext accountContext = verified.get().toAccountContext();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(accountContext, null, accountContext.getAuthorities()));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * A stale token sent along with a login request must not prevent the login.
+     *
+     * @param request
+     * @return boolean
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "/login".equals(request.getServletPath());
+    }
+
+}
@@ -0,0 +1,74 @@
+package me.ghwn.netflix.accountservice.security;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import lombok.RequiredArgsConstructor;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+import static me.ghwn.netflix.accountservice.security.AccessTokenKey.ENCODED_HEADER;
+import static me.ghwn.netflix.accountservice.security.AccessTokenKey.ENCODER;
+
+/**
+ * Issues HS512 signed access tokens.
+ * The encoded header never changes, so only the payload and the signature are built per token.
+ */
+@RequiredArgsConstructor
+@Component
+public class AccessTokenIssuer {
+
+    public static final String ACCOUNT_ID_CLAIM = "aid";
+    public static final String EMAIL_CLAIM = "sub";
+    public static final String ROLES_CLAIM = "rol";
+
+    private final AccessTokenKeyHolder keyHolder;
+
+    /**
+     * Issues an access token for the account that expires after {@code jwt.access-token.expiration-time} seconds.
+     * The token carries everything needed to authenticate the account without loading it.
+     *
+     * @param accountId
+     * @param email
+     * @param roles
+     * @return compact serialized token
+     */
+    public String issue(String accountId, String email, Collection<AccountRole> roles) {
+        AccessTokenKey key = keyHolder.current();
+        long issuedAt = System.currentTimeMillis() / 1000;
+        byte[] payload = ENCODER.encode(payload(accountId, email, roles, issuedAt, issuedAt + key.getExpirationTime()));
+
+        byte[] token = new byte[ENCODED_HEADER.length + 1 + payload.length + 1 + key.getEncodedSignatureLength()];
+        System.arraycopy(ENCODED_HEADER, 0, token, 0, ENCODED_HEADER.length);
+        token[ENCODED_HEADER.length] = '.';
+        System.arraycopy(payload, 0, token, ENCODED_HEADER.length + 1, payload.length);
+        int signingInputLength = ENCODED_HEADER.length + 1 + payload.length;
+
+        byte[] signature = ENCODER.encode(key.sign(token, 0, signingInputLength));
+        token[signingInputLength] = '.';
+        System.arraycopy(signature, 0, token, signingInputLength + 1, signature.length);
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] payload(String accountId, String email, Collection<AccountRole> roles,
+                                  long issuedAt, long expiration) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder json = new StringBuilder(160).append("{\"").append(ACCOUNT_ID_CLAIM).append("\":\"");
+        encoder.quoteAsString(accountId, json);
+        json.append("\",\"").append(EMAIL_CLAIM).append("\":\"");
+        encoder.quoteAsString(email, json);
+        json.append("\",\"").append(ROLES_CLAIM).append("\":[");
+        boolean first = true;
+        for (AccountRole role : roles) {
+            json.append(first ? "\"" : ",\"").append(role.name()).append('"');
+            first = false;
+        }
+        return json.append("],\"iat\":").append(issuedAt)
+                .append(",\"exp\":").append(expiration)
+                .append('}')
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+}
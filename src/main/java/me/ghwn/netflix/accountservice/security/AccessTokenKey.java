@@ -0,0 +1,94 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Access token signing key and the settings it was loaded with.
+ * A new instance is created whenever the key is rotated, so holding on to one gives a consistent view.
+ */
+public final class AccessTokenKey {
+
+    static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.HS512;
+    static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Base64url encoded header of every access token.
+     */
+    static final byte[] ENCODED_HEADER = ENCODER.encode(
+            ("{\"typ\":\"JWT\",\"alg\":\"" + ALGORITHM.getValue() + "\"}").getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Maximum number of idle Macs kept per key.
+     */
+    static final int MAC_POOL_SIZE = 64;
+
+    private final SecretKey key;
+    private final long expirationTime;
+    private final BlockingQueue<Mac> macs = new ArrayBlockingQueue<>(MAC_POOL_SIZE);
+    private final int encodedSignatureLength;
+
+    AccessTokenKey(SecretKey key, long expirationTime) {
+        ALGORITHM.assertValidSigningKey(key);
+        this.key = key;
+        this.expirationTime = expirationTime;
+        Mac mac = newMac();
+        this.encodedSignatureLength = (mac.getMacLength() * 8 + 5) / 6;
+        macs.offer(mac);
+    }
+
+    /**
+     * Computes the signature of a signing input with a pooled Mac.
+     * Macs are pooled in a bounded queue rather than per thread, so that a thread per request
+     * does not create and initialize a new Mac every time. An empty pool creates a new one.
+     *
+     * @param input
+     * @param offset
+     * @param length
+     * @return raw signature
+     */
+    byte[] sign(byte[] input, int offset, int length) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        try {
+            mac.update(input, offset, length);
+            return mac.doFinal();
+        } finally {
+            mac.reset();
+            macs.offer(mac);
+        }
+    }
+
+    /**
+     * Expiration time of issued tokens in seconds.
+     *
+     * @return long
+     */
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    int getEncodedSignatureLength() {
+        return encodedSignatureLength;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM.getJcaName());
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
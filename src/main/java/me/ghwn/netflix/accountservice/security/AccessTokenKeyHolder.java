@@ -0,0 +1,51 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Holds the access token signing key.
+ * The key is derived from {@code jwt.secret} once and derived again only when the
+ * environment is refreshed, e.g. through {@code /actuator/refresh} or a bus refresh.
+ */
+@Slf4j
+@Component
+public class AccessTokenKeyHolder {
+
+    private static final String SECRET_PROPERTY = "jwt.secret";
+    private static final String EXPIRATION_TIME_PROPERTY = "jwt.access-token.expiration-time";
+
+    private final Environment env;
+    private volatile AccessTokenKey current;
+
+    public AccessTokenKeyHolder(Environment env) {
+        this.env = env;
+        this.current = load();
+    }
+
+    public AccessTokenKey current() {
+        return current;
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().contains(SECRET_PROPERTY) || event.getKeys().contains(EXPIRATION_TIME_PROPERTY)) {
+            current = load();
+            log.info("Reloaded access token signing key");
+        }
+    }
+
+    private AccessTokenKey load() {
+        String secret = Objects.requireNonNull(env.getProperty(SECRET_PROPERTY));
+        long expirationTime = Long.parseLong(Objects.requireNonNull(env.getProperty(EXPIRATION_TIME_PROPERTY)));
+        return new AccessTokenKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), expirationTime);
+    }
+
+}
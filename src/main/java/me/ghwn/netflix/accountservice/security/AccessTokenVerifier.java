@@ -0,0 +1,151 @@
+package me.ghwn.netflix.accountservice.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static me.ghwn.netflix.accountservice.security.AccessTokenKey.ENCODED_HEADER;
+
+/**
+ * Verifies access tokens issued by {@link AccessTokenIssuer}.
+ * Verified tokens are cached until they expire, so a token presented again skips the HMAC and the JSON parse.
+ * Cached results are only used while the signing key they were verified with is current.
+ */
+@Component
+public class AccessTokenVerifier {
+
+    private static final String HEADER = new String(ENCODED_HEADER, StandardCharsets.US_ASCII);
+    private static final ObjectMapper PAYLOAD_READER = new ObjectMapper();
+
+    private final AccessTokenKeyHolder keyHolder;
+    private final Cache<String, VerifiedAccessToken> verifiedTokens;
+
+    private final Timer cachedTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Timer expiredTimer;
+
+    public AccessTokenVerifier(AccessTokenKeyHolder keyHolder, Environment env, MeterRegistry meterRegistry) {
+        this.keyHolder = keyHolder;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(env.getProperty("account.token-cache.maximum-size", Long.class, 10_000L))
+                .expireAfter(new UntilExpiration())
+                .build();
+
+        this.cachedTimer = verificationTimer(meterRegistry, "hit", "valid");
+        this.validTimer = verificationTimer(meterRegistry, "miss", "valid");
+        this.invalidTimer = verificationTimer(meterRegistry, "miss", "invalid");
+        this.expiredTimer = verificationTimer(meterRegistry, "miss", "expired");
+    }
+
+    /**
+     * Verifies the signature and expiration of a token.
+     *
+     * @param token compact serialized token
+     * @return claims of the token, or empty if the token is malformed, forged or expired
+     */
+    public Optional<VerifiedAccessToken> verify(String token) {
+        long start = System.nanoTime();
+        AccessTokenKey key = keyHolder.current();
+        long now = System.currentTimeMillis() / 1000;
+
+        VerifiedAccessToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && cached.getKey() == key && cached.getExpiresAt() > now) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
+
+        VerifiedAccessToken verified = parse(token, key);
+        if (verified == null) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+        if (verified.getExpiresAt() <= now) {
+            expiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+        verifiedTokens.put(token, verified);
+        validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Optional.of(verified);
+    }
+
+    private static VerifiedAccessToken parse(String token, AccessTokenKey key) {
+        int payloadStart = HEADER.length() + 1;
+        int signatureStart = token.indexOf('.', payloadStart) + 1;
+        if (!token.startsWith(HEADER) || token.length() <= payloadStart || token.charAt(HEADER.length()) != '.'
+                || signatureStart == 0 || token.indexOf('.', signatureStart) >= 0) {
+            return null;
+        }
+
+        try {
+            byte[] signingInput = token.substring(0, signatureStart - 1).getBytes(StandardCharsets.US_ASCII);
+            byte[] expectedSignature = key.sign(signingInput, 0, signingInput.length);
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart));
+            if (!MessageDigest.isEqual(expectedSignature, signature)) {
+                return null;
+            }
+
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(payloadStart, signatureStart - 1));
+            JsonNode claims = PAYLOAD_READER.readTree(payload);
+            String accountId = claims.path(AccessTokenIssuer.ACCOUNT_ID_CLAIM).textValue();
+            JsonNode expiration = claims.path("exp");
+            if (accountId == null || !expiration.canConvertToLong()) {
+                return null;
+            }
+            Set<AccountRole> roles = EnumSet.noneOf(AccountRole.class);
+            for (JsonNode role : claims.path(AccessTokenIssuer.ROLES_CLAIM)) {
+                roles.add(AccountRole.valueOf(role.asText()));
+            }
+            return new VerifiedAccessToken(accountId, claims.path(AccessTokenIssuer.EMAIL_CLAIM).textValue(),
+                    roles, expiration.asLong(), key);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String cache, String result) {
+        return Timer.builder("account.token.verification")
+                .description("Time to verify an access token")
+                .tag("cache", cache)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static class UntilExpiration implements Expiry<String, VerifiedAccessToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedAccessToken verified, long currentTime) {
+            long remainingMillis = verified.getExpiresAt() * 1000 - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedAccessToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedAccessToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
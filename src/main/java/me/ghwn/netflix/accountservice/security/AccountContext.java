@@ -1,10 +1,14 @@
 package me.ghwn.netflix.accountservice.security;
 
 import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
 import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class AccountContext extends User {
 
@@ -19,4 +23,10 @@ public class AccountContext extends User {
         return account;
     }
 
+    public static Set<SimpleGrantedAuthority> authoritiesOf(Collection<AccountRole> roles) {
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .collect(Collectors.toSet());
+    }
+
 }
@@ -0,0 +1,49 @@
+package me.ghwn.netflix.accountservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt strength for the current machine.
+ * Every additional round doubles the hashing time, so strengths are measured in ascending order
+ * and the strongest one that still finishes within the target latency is chosen.
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-P@ssw0rd";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        // Warm up so that class loading and JIT compilation don't count against the first strength.
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD);
+
+        int strength = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            Duration latency = measure(candidate);
+            log.debug("BCrypt strength {} takes {} ms", candidate, latency.toMillis());
+            if (latency.compareTo(targetLatency) > 0) {
+                break;
+            }
+            strength = candidate;
+        }
+        log.info("Calibrated BCrypt strength to {} for target latency of {} ms", strength, targetLatency.toMillis());
+        return strength;
+    }
+
+    private static Duration measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+
+}
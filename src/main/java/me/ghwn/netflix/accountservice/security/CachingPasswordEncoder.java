@@ -0,0 +1,108 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encoder that remembers successful verifications for a short time.
+ * Entries are keyed by an HMAC of the presented password and the stored hash under a key that never
+ * leaves the process, so neither the plaintext nor anything that can be attacked offline is kept.
+ * The stored hash is part of the key, so changing a password makes its old entries unreachable.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    public static final String CACHE_NAME = "login-verifications";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final Cache verifications;
+    private final ThreadLocal<Mac> macs;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter savedTime;
+    private final Timer verificationTimer;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, Cache verifications, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.verifications = verifications;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        this.hits = Counter.builder("account.login.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("account.login.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.savedTime = Counter.builder("account.login.cache.saved")
+                .description("Estimated password encoder time saved by cached verifications")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.verificationTimer = Timer.builder("account.login.cache.verification")
+                .description("Password encoder time spent on verifications that missed the cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String key = verificationKey(rawPassword, encodedPassword);
+        if (verifications.get(key) != null) {
+            hits.increment();
+            savedTime.increment(verificationTimer.mean(TimeUnit.SECONDS));
+            return true;
+        }
+        misses.increment();
+        boolean matched = verificationTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        if (matched) {
+            verifications.put(key, Boolean.TRUE);
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private String verificationKey(CharSequence rawPassword, String encodedPassword) {
+        Mac mac = macs.get();
+        mac.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(rawPassword)));
+        mac.update((byte) 0);
+        mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+
+}
@@ -0,0 +1,42 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Authentication provider that times the database and password verification phases of a login
+ * as account.login.phase, tagged with phase=load-user and phase=verify-password.
+ * A user served from the user cache records no load-user time.
+ */
+public class InstrumentedAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final Timer loadUserTimer;
+    private final Timer verifyPasswordTimer;
+
+    public InstrumentedAuthenticationProvider(MeterRegistry meterRegistry) {
+        this.loadUserTimer = LoginFilter.phaseTimer("load-user", meterRegistry);
+        this.verifyPasswordTimer = LoginFilter.phaseTimer("verify-password", meterRegistry);
+    }
+
+    @Override
+    public void setUserDetailsService(UserDetailsService userDetailsService) {
+        super.setUserDetailsService(username -> loadUserTimer.record(() -> userDetailsService.loadUserByUsername(username)));
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        Timer.Sample sample = Timer.start();
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } finally {
+            sample.stop(verifyPasswordTimer);
+        }
+    }
+
+}
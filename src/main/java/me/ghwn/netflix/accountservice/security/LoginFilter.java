@@ -1,7 +1,12 @@
 package me.ghwn.netflix.accountservice.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import me.ghwn.netflix.accountservice.dto.LoginRequest;
+import me.ghwn.netflix.accountservice.exception.PasswordHashingRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,13 +20,34 @@ import java.io.IOException;
 
 public class LoginFilter extends UsernamePasswordAuthenticationFilter {
 
-    public LoginFilter(AuthenticationManager authenticationManager) {
+    private final MeterRegistry meterRegistry;
+    private final Timer parseTimer;
+
+    public LoginFilter(AuthenticationManager authenticationManager, MeterRegistry meterRegistry) {
         super(authenticationManager);
+        this.meterRegistry = meterRegistry;
+        this.parseTimer = phaseTimer("parse", meterRegistry);
+    }
+
+    /**
+     * Builds the timer of a login phase. The other phases are timed by {@link InstrumentedAuthenticationProvider}.
+     *
+     * @param phase
+     * @param meterRegistry
+     * @return Timer
+     */
+    static Timer phaseTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("account.login.phase")
+                .description("Time spent in each phase of a login attempt")
+                .tag("phase", phase)
+                .register(meterRegistry);
     }
 
     /**
      * Attempt authentication by obtaining an email and a password from request.
      * The actual authentication process will be entrusted to authentication manager.
+     * If password verification cannot be queued, responds with 503 and stops the filter chain.
+     * The whole attempt is timed as account.login, tagged with its outcome.
      *
      * @param request
      * @param response
@@ -34,6 +60,29 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
         if (!request.getMethod().equals("POST")) {
             throw new AuthenticationServiceException("Authentication method not supported: " + request.getMethod());
         }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            UsernamePasswordAuthenticationToken authRequest = parseTimer.record(() -> parseLoginRequest(request));
+            // Allow subclasses to set the "details" property
+            setDetails(request, authRequest);
+            Authentication authentication = this.getAuthenticationManager().authenticate(authRequest);
+            outcome = "success";
+            return authentication;
+        } catch (PasswordHashingRejectedException e) {
+            outcome = "rejected";
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            return null;
+        } finally {
+            sample.stop(Timer.builder("account.login")
+                    .description("Time spent on a login attempt")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private UsernamePasswordAuthenticationToken parseLoginRequest(HttpServletRequest request) {
         String email, password;
         try {
             LoginRequest loginRequest = new ObjectMapper()
@@ -46,10 +95,7 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
             email = "";
             password = "";
         }
-        UsernamePasswordAuthenticationToken authRequest = new UsernamePasswordAuthenticationToken(email, password);
-        // Allow subclasses to set the "details" property
-        setDetails(request, authRequest);
-        return this.getAuthenticationManager().authenticate(authRequest);
+        return new UsernamePasswordAuthenticationToken(email, password);
     }
 
 }
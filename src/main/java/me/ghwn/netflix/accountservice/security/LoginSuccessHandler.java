@@ -1,32 +1,29 @@
 package me.ghwn.netflix.accountservice.security;
 
-import io.jsonwebtoken.Header;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.ghwn.netflix.accountservice.entity.Account;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 
-import javax.crypto.SecretKey;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Date;
 
 public class LoginSuccessHandler implements AuthenticationSuccessHandler {
 
-    private static final String ACCOUNT_ID_PAYLOAD_KEY = "aid";
-    private static final String ACCESS_TOKEN_HEADER_NAME = "access-token";
+    private static final String ACCESS_TOKEN_HEADER_NAME = AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER_NAME;
     private static final String ACCOUNT_ID_HEADER_NAME = "account-id";
 
-    private final String secret;
-    private final Long accessExpirationTime;
+    private final AccessTokenIssuer accessTokenIssuer;
+    private final Timer issueTimer;
 
-    public LoginSuccessHandler(String secret, Long accessExpirationTime) {
-        this.secret = secret;
-        this.accessExpirationTime = accessExpirationTime;
+    public LoginSuccessHandler(AccessTokenIssuer accessTokenIssuer, MeterRegistry meterRegistry) {
+        this.accessTokenIssuer = accessTokenIssuer;
+        this.issueTimer = Timer.builder("account.token.issue")
+                .description("Time spent on issuing an access token")
+                .register(meterRegistry);
     }
 
     @Override
@@ -34,22 +31,13 @@ public class LoginSuccessHandler implements AuthenticationSuccessHandler {
                                         HttpServletResponse response,
                                         Authentication authentication) throws IOException, ServletException {
         AccountContext accountContext = (AccountContext) authentication.getPrincipal();
-        String accountId = accountContext.getAccount().getAccountId();
-        String accessToken = createAccessToken(accountId, secret, accessExpirationTime);
+        Account account = accountContext.getAccount();
+        String accountId = account.getAccountId();
+        String accessToken = issueTimer.record(
+                () -> accessTokenIssuer.issue(accountId, account.getEmail(), account.getRoles()));
 
         response.addHeader(ACCESS_TOKEN_HEADER_NAME, accessToken);
         response.addHeader(ACCOUNT_ID_HEADER_NAME, accountId);
     }
 
-    private String createAccessToken(String accountId, String secret, Long expirationTime) {
-        SecretKey secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-        return Jwts.builder()
-                .setHeaderParam(Header.TYPE, "JWT")
-                .claim(ACCOUNT_ID_PAYLOAD_KEY, accountId)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + (expirationTime * 1000)))
-                .signWith(secretKey, SignatureAlgorithm.HS512)
-                .compact();
-    }
-
 }
@@ -0,0 +1,65 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final int DEFAULT_BCRYPT_STRENGTH = 10;
+
+    private final Environment env;
+
+    /**
+     * Builds a password encoder that hashes new passwords with BCrypt of the configured strength.
+     * Hashes of any other id or strength still match, and are reported by {@code upgradeEncoding}
+     * so that they are rehashed after the next successful login.
+     *
+     * @param passwordHashingExecutor
+     * @param meterRegistry
+     * @return BoundedPasswordEncoder
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(
+                BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(bcryptStrength()))
+        );
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, passwordHashingExecutor, meterRegistry);
+    }
+
+    /**
+     * Calibrates the BCrypt strength when a target latency is configured.
+     * Each instance calibrates on its own hardware, and {@code upgradeEncoding} only ever raises the strength of
+     * a stored hash. In a fleet of mixed hardware, stored hashes therefore converge to the strength of the fastest
+     * instance, and logins on slower instances take longer than the target. Set a fixed
+     * account.password-encoder.strength instead where that matters.
+     *
+     * @return BCrypt strength
+     */
+    private int bcryptStrength() {
+        Duration targetLatency = env.getProperty("account.password-encoder.target-latency", Duration.class);
+        if (targetLatency == null) {
+            return env.getProperty("account.password-encoder.strength", Integer.class, DEFAULT_BCRYPT_STRENGTH);
+        }
+        return BCryptStrengthCalibrator.calibrate(
+                targetLatency,
+                env.getProperty("account.password-encoder.min-strength", Integer.class, DEFAULT_BCRYPT_STRENGTH),
+                env.getProperty("account.password-encoder.max-strength", Integer.class, 14)
+        );
+    }
+
+}
@@ -0,0 +1,101 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import me.ghwn.netflix.accountservice.exception.PasswordHashingRejectedException;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Runs password hashing on a dedicated, fixed-size pool with a bounded queue.
+ * This keeps CPU-heavy hashing from occupying every request thread during signup and login spikes.
+ * When the queue is full, the task is rejected immediately instead of waiting.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ExecutorService executor;
+    private final int poolSize;
+    private final long retryAfterSeconds;
+    private final Counter rejections;
+
+    public PasswordHashingExecutor(Environment env, MeterRegistry meterRegistry) {
+        this.poolSize = env.getProperty("account.password-hashing.pool-size", Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        int queueCapacity = env.getProperty("account.password-hashing.queue-capacity", Integer.class, 64);
+        this.retryAfterSeconds = env.getProperty("account.password-hashing.retry-after", Duration.class,
+                Duration.ofSeconds(1)).toSeconds();
+
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "password-hashing");
+        this.rejections = Counter.builder("account.password.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task on the hashing pool and waits for its result.
+     *
+     * @param task
+     * @return result of the task
+     * @throws PasswordHashingRejectedException if the queue is full
+     */
+    public <T> T execute(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    /**
+     * Submits a task to the hashing pool without waiting for it.
+     *
+     * @param task
+     * @return Future
+     * @throws PasswordHashingRejectedException if the queue is full
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingRejectedException(retryAfterSeconds);
+        }
+    }
+
+    public <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
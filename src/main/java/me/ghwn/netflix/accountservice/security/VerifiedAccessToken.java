@@ -0,0 +1,42 @@
+package me.ghwn.netflix.accountservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+
+import java.util.Set;
+
+/**
+ * Claims of an access token whose signature and expiration have been checked.
+ */
+@AllArgsConstructor
+@Getter
+public class VerifiedAccessToken {
+
+    private final String accountId;
+
+    private final String email;
+
+    private final Set<AccountRole> roles;
+
+    /**
+     * Expiration time in seconds since the epoch.
+     */
+    private final long expiresAt;
+
+    private final AccessTokenKey key;
+
+    /**
+     * Builds the principal of the token holder from the claims alone.
+     * The account has no id or password, since neither is part of the token.
+     *
+     * @return AccountContext
+     */
+    public AccountContext toAccountContext() {
+        String username = email != null ? email : accountId;
+        Account account = new Account(null, accountId, username, "", true, roles);
+        return new AccountContext(account, AccountContext.authoritiesOf(roles));
+    }
+
+}
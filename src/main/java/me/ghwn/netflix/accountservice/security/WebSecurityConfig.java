@@ -1,21 +1,26 @@
 package me.ghwn.netflix.accountservice.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.ghwn.netflix.accountservice.cache.AccountCache;
 import me.ghwn.netflix.accountservice.service.AccountService;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
+import org.springframework.cache.CacheManager;
 import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.servlet.Filter;
-import java.util.Objects;
-
 @Slf4j
 @RequiredArgsConstructor
 @EnableWebSecurity
@@ -24,10 +29,18 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     private final AccountService accountService;
     private final PasswordEncoder passwordEncoder;
     private final Environment env;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final AccessTokenIssuer accessTokenIssuer;
+    private final AccessTokenVerifier accessTokenVerifier;
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(accountService).passwordEncoder(passwordEncoder);
+        auth.authenticationProvider(buildAuthenticationProvider());
+        if (isLoginCacheEnabled()) {
+            // Cached user details must keep their password hash to be verified again.
+            auth.eraseCredentials(false);
+        }
     }
 
     @Override
@@ -48,9 +61,40 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
 
                 .and()
+                .addFilterBefore(new AccessTokenAuthenticationFilter(accessTokenVerifier), UsernamePasswordAuthenticationFilter.class)
                 .addFilter(buildLoginFilter());
     }
 
+    /**
+     * Builds an authentication provider that loads accounts through account service.
+     * Password hashes that are weaker than the current encoder settings are rehashed on successful login.
+     * When the login cache is enabled, loaded accounts and successful password verifications
+     * are cached for a short time so that repeated logins skip the database and the password encoder.
+     * The database and password verification phases are timed separately.
+     *
+     * @return AuthenticationProvider
+     * @throws Exception
+     */
+    private AuthenticationProvider buildAuthenticationProvider() throws Exception {
+        DaoAuthenticationProvider provider = new InstrumentedAuthenticationProvider(meterRegistry);
+        provider.setUserDetailsService(accountService);
+        provider.setUserDetailsPasswordService(accountService);
+        provider.setPasswordEncoder(passwordEncoder);
+        if (isLoginCacheEnabled()) {
+            provider.setPasswordEncoder(new CachingPasswordEncoder(
+                    passwordEncoder,
+                    cacheManager.getCache(CachingPasswordEncoder.CACHE_NAME),
+                    meterRegistry
+            ));
+            provider.setUserCache(new SpringCacheBasedUserCache(cacheManager.getCache(AccountCache.LOGIN_USERS)));
+        }
+        return provider;
+    }
+
+    private boolean isLoginCacheEnabled() {
+        return env.getProperty("account.login-cache.enabled", Boolean.class, false);
+    }
+
     /**
      * Builds a custom login filter.
      *
@@ -58,10 +102,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
      * @throws Exception
      */
     private Filter buildLoginFilter() throws Exception {
-        LoginFilter filter = new LoginFilter(authenticationManager());
-        String secret = Objects.requireNonNull(env.getProperty("jwt.secret"));
-        Long accessExpirationTime = Long.parseLong(Objects.requireNonNull(env.getProperty("jwt.access-token.expiration-time")));
-        LoginSuccessHandler loginSuccessHandler = new LoginSuccessHandler(secret, accessExpirationTime);
+        LoginFilter filter = new LoginFilter(authenticationManager(), meterRegistry);
+        LoginSuccessHandler loginSuccessHandler = new LoginSuccessHandler(accessTokenIssuer, meterRegistry);
         filter.setAuthenticationSuccessHandler(loginSuccessHandler);
         return filter;
     }
@@ -2,30 +2,57 @@ package me.ghwn.netflix.accountservice.service;
 
 import me.ghwn.netflix.accountservice.dto.AccountDto;
 import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.dto.SignupResult;
 import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
-public interface AccountService extends UserDetailsService {
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface AccountService extends UserDetailsService, UserDetailsPasswordService {
 
     @Override
     UserDetails loadUserByUsername(String username) throws UsernameNotFoundException;
 
+    @Override
+    UserDetails updatePassword(UserDetails user, String newPassword);
+
     AccountDto createAccount(SignupRequest request);
 
+    List<SignupResult> createAccounts(List<SignupRequest> requests);
+
     AccountDto getAccountById(Long id);
 
     AccountDto getAccountByAccountId(String accountId);
 
     AccountDto getAccountByEmail(String email);
 
+    AccountDto getAccountSummaryByAccountId(String accountId);
+
+    List<AccountDto> getAccountsByAccountIds(List<String> accountIds);
+
     Page<AccountDto> getAccountList(Pageable pageable);
 
+    Page<AccountDto> getAccountSummaryList(Pageable pageable);
+
+    Slice<AccountDto> getAccountListAfter(Long id, int size);
+
+    Slice<AccountDto> getAccountListBefore(Long id, int size);
+
+    void exportAccounts(Consumer<AccountDto> consumer);
+
     AccountDto updateAccount(Long id, AccountUpdateRequest request);
 
+    AccountDto updateAccount(Long id, Long expectedVersion, AccountUpdateRequest request);
+
     void deleteAccount(Long id);
 
+    void deleteAccount(Long id, Long expectedVersion);
+
 }
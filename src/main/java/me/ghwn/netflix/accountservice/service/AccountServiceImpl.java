@@ -1,95 +1,368 @@
 package me.ghwn.netflix.accountservice.service;
 
+import com.google.common.collect.Iterables;
 import lombok.RequiredArgsConstructor;
+import me.ghwn.netflix.accountservice.cache.AccountCache;
+import me.ghwn.netflix.accountservice.datasource.PrimaryStickiness;
 import me.ghwn.netflix.accountservice.dto.AccountDto;
 import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
 import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.dto.SignupResult;
 import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
 import me.ghwn.netflix.accountservice.exception.AccountNotFoundException;
+import me.ghwn.netflix.accountservice.exception.DuplicateEmailException;
+import me.ghwn.netflix.accountservice.exception.PreconditionFailedException;
+import me.ghwn.netflix.accountservice.mapping.AccountMapper;
+import me.ghwn.netflix.accountservice.repository.AccountExportRow;
 import me.ghwn.netflix.accountservice.repository.AccountRepository;
+import me.ghwn.netflix.accountservice.repository.AccountSummary;
 import me.ghwn.netflix.accountservice.security.AccountContext;
-import org.modelmapper.ModelMapper;
+import me.ghwn.netflix.accountservice.security.BoundedPasswordEncoder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Service
 public class AccountServiceImpl implements AccountService {
 
+    static final int LOOKUP_CHUNK_SIZE = 100;
+
     private final AccountRepository accountRepository;
-    private final ModelMapper modelMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final AccountMapper accountMapper;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final AccountCache accountCache;
+    private final KnownEmailFilter knownEmailFilter;
+    private final PrimaryStickiness primaryStickiness;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(email));
-        Set<SimpleGrantedAuthority> authorities = account.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
-                .collect(Collectors.toSet());
-        return new AccountContext(account, authorities);
+        Account account = primaryStickiness.read(email, () -> accountRepository.findByEmail(email))
+                .orElseThrow(() -> new UsernameNotFoundException(email));
+        return new AccountContext(account, AccountContext.authoritiesOf(account.getRoles()));
+    }
+
+    /**
+     * Replaces the password hash of an account after a successful login,
+     * when the password encoder reports that the stored hash should be upgraded.
+     *
+     * @param user
+     * @param newPassword already encoded password
+     * @return UserDetails
+     */
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Account account = accountRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(user.getUsername()));
+        account.setPassword(newPassword);
+        accountCache.evict(account.getId(), account.getAccountId(), account.getEmail());
+        primaryStickiness.stick(account.getId(), account.getAccountId(), account.getEmail());
+        return new AccountContext(account, user.getAuthorities());
     }
 
+    /**
+     * Creates an account.
+     * A taken email is rejected before the password is hashed. The existence query is skipped
+     * when the email filter shows that the email is new.
+     *
+     * @param request
+     * @return AccountDto
+     * @throws DuplicateEmailException if the email is already taken
+     */
     @Transactional
     @Override
     public AccountDto createAccount(SignupRequest request) {
-        Account account = modelMapper.map(request, Account.class);
+        if (knownEmailFilter.mightContain(request.getEmail()) && accountRepository.existsByEmail(request.getEmail())) {
+            throw new DuplicateEmailException();
+        }
+        Account account = accountMapper.toEntity(request);
         account.setPassword(passwordEncoder.encode(request.getPassword()));
         account.setAccountId(UUID.randomUUID().toString());
         accountRepository.save(account);
-        return modelMapper.map(account, AccountDto.class);
+        knownEmailFilter.add(account.getEmail());
+        primaryStickiness.stick(account.getId(), account.getAccountId(), account.getEmail());
+        return accountMapper.toDto(account);
+    }
+
+    /**
+     * Creates accounts in one transaction.
+     * Passwords are hashed in parallel, and the inserts are sent in JDBC batches when
+     * {@code hibernate.jdbc.batch_size} is set.
+     * A request whose email is already taken, or repeated in the batch, is rejected without affecting the others.
+     *
+     * @param requests
+     * @return results in the order of the requests
+     */
+    @Transactional
+    @Override
+    public List<SignupResult> createAccounts(List<SignupRequest> requests) {
+        // The email filter is not consulted here. One query covers the whole batch anyway, and an email that was
+        // taken on another instance, but is not in the filter yet, would otherwise fail the whole batch at commit.
+        Set<String> emails = requests.stream()
+                .map(SignupRequest::getEmail)
+                .collect(Collectors.toSet());
+        Set<String> takenEmails = emails.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(accountRepository.findExistingEmails(emails));
+
+        SignupResult[] results = new SignupResult[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (takenEmails.add(requests.get(i).getEmail())) {
+                acceptedIndexes.add(i);
+            } else {
+                results[i] = SignupResult.rejected("Email already exists");
+            }
+        }
+
+        List<String> encodedPasswords = passwordEncoder.encodeAll(acceptedIndexes.stream()
+                .map(i -> requests.get(i).getPassword())
+                .collect(Collectors.toList()));
+        List<Account> accounts = new ArrayList<>(acceptedIndexes.size());
+        for (int i = 0; i < acceptedIndexes.size(); i++) {
+            Account account = accountMapper.toEntity(requests.get(acceptedIndexes.get(i)));
+            account.setPassword(encodedPasswords.get(i));
+            account.setAccountId(UUID.randomUUID().toString());
+            accounts.add(account);
+        }
+        accountRepository.saveAll(accounts);
+        accounts.forEach(account -> {
+            knownEmailFilter.add(account.getEmail());
+            primaryStickiness.stick(account.getId(), account.getAccountId(), account.getEmail());
+        });
+
+        for (int i = 0; i < acceptedIndexes.size(); i++) {
+            results[acceptedIndexes.get(i)] = SignupResult.created(accountMapper.toDto(accounts.get(i)));
+        }
+        return Arrays.asList(results);
     }
 
     @Override
     public AccountDto getAccountById(Long id) {
-        return accountRepository.findById(id)
-                .map(account -> modelMapper.map(account, AccountDto.class))
-                .orElseThrow(() -> new AccountNotFoundException());
+        return accountCache.getById(id, () -> primaryStickiness.read(id, () -> accountRepository.findById(id))
+                .map(accountMapper::toDto)
+                .orElseThrow(() -> new AccountNotFoundException()));
     }
 
     @Override
     public AccountDto getAccountByAccountId(String accountId) {
-        return accountRepository.findByAccountId(accountId)
-                .map(account -> modelMapper.map(account, AccountDto.class))
-                .orElseThrow(() -> new AccountNotFoundException());
+        return accountCache.getByAccountId(accountId, () -> primaryStickiness
+                .read(accountId, () -> accountRepository.findByAccountId(accountId))
+                .map(accountMapper::toDto)
+                .orElseThrow(() -> new AccountNotFoundException()));
     }
 
     @Override
     public AccountDto getAccountByEmail(String email) {
-        return accountRepository.findByEmail(email)
-                .map(account -> modelMapper.map(account, AccountDto.class))
+        return accountCache.getByEmail(email, () -> primaryStickiness
+                .read(email, () -> accountRepository.findByEmail(email))
+                .map(accountMapper::toDto)
+                .orElseThrow(() -> new AccountNotFoundException()));
+    }
+
+    /**
+     * Gets an account without its roles, for representations that do not show them.
+     * A cached account is returned as is. Otherwise only the {@link AccountSummary} columns are selected,
+     * and the partial account is not cached.
+     *
+     * @param accountId
+     * @return AccountDto without roles, unless it was cached
+     */
+    @Override
+    public AccountDto getAccountSummaryByAccountId(String accountId) {
+        AccountDto cached = accountCache.peekByAccountId(accountId);
+        if (cached != null) {
+            return cached;
+        }
+        return primaryStickiness.read(accountId, () -> accountRepository.findSummaryByAccountId(accountId))
+                .map(accountMapper::toDto)
                 .orElseThrow(() -> new AccountNotFoundException());
     }
 
+    /**
+     * Gets accounts by accountIds in the order of the accountIds. Unknown accountIds are skipped.
+     * Cached accounts are served from the cache. The others are loaded with one query per
+     * {@value #LOOKUP_CHUNK_SIZE} accountIds, roles included, and cached.
+     *
+     * @param accountIds
+     * @return accounts
+     */
+    @Override
+    public List<AccountDto> getAccountsByAccountIds(List<String> accountIds) {
+        Map<String, AccountDto> accounts = accountCache.getAllByAccountId(accountIds,
+                missingAccountIds -> primaryStickiness.readAll(missingAccountIds, () -> loadByAccountIds(missingAccountIds)));
+        return accountIds.stream()
+                .distinct()
+                .map(accounts::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<AccountDto> loadByAccountIds(Collection<String> accountIds) {
+        List<AccountDto> accounts = new ArrayList<>(accountIds.size());
+        for (List<String> chunk : Iterables.partition(accountIds, LOOKUP_CHUNK_SIZE)) {
+            accountRepository.findAllByAccountIdIn(chunk).forEach(account -> accounts.add(accountMapper.toDto(account)));
+        }
+        return accounts;
+    }
+
     @Override
     public Page<AccountDto> getAccountList(Pageable pageable) {
         return accountRepository.findAll(pageable)
-                .map(account -> modelMapper.map(account, AccountDto.class));
+                .map(accountMapper::toDto);
+    }
+
+    /**
+     * Gets a page of accounts without their roles. Only the {@link AccountSummary} columns are selected,
+     * and the roles are not queried.
+     *
+     * @param pageable
+     * @return Page of accounts without roles
+     */
+    @Override
+    public Page<AccountDto> getAccountSummaryList(Pageable pageable) {
+        return accountRepository.findAllSummariesBy(pageable)
+                .map(accountMapper::toDto);
+    }
+
+    /**
+     * Gets up to {@code size} accounts whose ids are greater than the given id, in ascending id order.
+     * The following accounts are probed by fetching one more row instead of counting them.
+     *
+     * @param id
+     * @param size
+     * @return Slice of accounts
+     */
+    @Override
+    public Slice<AccountDto> getAccountListAfter(Long id, int size) {
+        return accountRepository.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, size))
+                .map(accountMapper::toDto);
+    }
+
+    /**
+     * Gets up to {@code size} accounts whose ids are less than the given id, in ascending id order.
+     * {@link Slice#hasNext()} tells whether there are more accounts before the returned ones.
+     *
+     * @param id
+     * @param size
+     * @return Slice of accounts
+     */
+    @Override
+    public Slice<AccountDto> getAccountListBefore(Long id, int size) {
+        Slice<Account> accounts = accountRepository.findByIdLessThanOrderByIdDesc(id, PageRequest.of(0, size));
+        List<AccountDto> content = accounts.stream()
+                .map(accountMapper::toDto)
+                .collect(Collectors.toList());
+        Collections.reverse(content);
+        return new SliceImpl<>(content, accounts.getPageable(), accounts.hasNext());
+    }
+
+    /**
+     * Passes every account to the consumer in id order while reading them through a database cursor.
+     * Only the account being assembled is held in memory, whatever the number of accounts.
+     *
+     * @param consumer
+     */
+    @Override
+    public void exportAccounts(Consumer<AccountDto> consumer) {
+        try (Stream<AccountExportRow> rows = accountRepository.streamAllForExport()) {
+            AccountDto current = null;
+            for (Iterator<AccountExportRow> iterator = rows.iterator(); iterator.hasNext(); ) {
+                AccountExportRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = new AccountDto(row.getId(), row.getAccountId(), row.getEmail(), null, row.isActive(),
+                            EnumSet.noneOf(AccountRole.class), row.getCreatedAt(), row.getUpdatedAt(), row.getVersion());
+                }
+                if (row.getRole() != null) {
+                    current.getRoles().add(row.getRole());
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
     }
 
     @Transactional
     @Override
     public AccountDto updateAccount(Long id, AccountUpdateRequest request) {
+        return updateAccount(id, null, request);
+    }
+
+    /**
+     * Updates an account if it still has the expected version.
+     * An update committed by someone else after the account was read here is detected by the version
+     * check of the flushed update statement, without locking the row.
+     *
+     * @param id
+     * @param expectedVersion version the update is based on, or null to update any version
+     * @param request
+     * @return AccountDto
+     * @throws PreconditionFailedException if the account does not have the expected version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the account is updated concurrently
+     */
+    @Transactional
+    @Override
+    public AccountDto updateAccount(Long id, Long expectedVersion, AccountUpdateRequest request) {
         Account account = accountRepository.findById(id).orElseThrow(() -> new AccountNotFoundException());
-        modelMapper.map(request, account);
-        return modelMapper.map(account, AccountDto.class);
+        checkVersion(account, expectedVersion);
+        accountMapper.update(request, account);
+        if (request.getPassword() != null) {
+            account.setPassword(passwordEncoder.encode(request.getPassword()));
+        }
+        // Flushed here rather than at commit, so that the returned account carries the new updatedAt.
+        accountRepository.flush();
+        accountCache.evict(account.getId(), account.getAccountId(), account.getEmail());
+        primaryStickiness.stick(account.getId(), account.getAccountId(), account.getEmail());
+        return accountMapper.toDto(account);
     }
 
     @Transactional
     @Override
     public void deleteAccount(Long id) {
+        deleteAccount(id, null);
+    }
+
+    /**
+     * Deletes an account if it still has the expected version.
+     *
+     * @param id
+     * @param expectedVersion version the deletion is based on, or null to delete any version
+     * @throws PreconditionFailedException if the account does not have the expected version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the account is updated concurrently
+     */
+    @Transactional
+    @Override
+    public void deleteAccount(Long id, Long expectedVersion) {
         Account account = accountRepository.findById(id).orElseThrow(() -> new AccountNotFoundException());
+        checkVersion(account, expectedVersion);
         accountRepository.delete(account);
+        accountCache.evict(account.getId(), account.getAccountId(), account.getEmail());
+        knownEmailFilter.remove(account.getEmail());
+        primaryStickiness.stick(account.getId(), account.getAccountId(), account.getEmail());
+    }
+
+    private void checkVersion(Account account, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(account.getVersion())) {
+            throw new PreconditionFailedException();
+        }
     }
 
 }
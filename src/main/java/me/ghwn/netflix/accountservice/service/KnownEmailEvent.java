@@ -0,0 +1,24 @@
+package me.ghwn.netflix.accountservice.service;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Bus event that carries a batch of emails to be added to the email filter of every instance.
+ */
+@Getter @Setter @NoArgsConstructor
+public class KnownEmailEvent extends RemoteApplicationEvent {
+
+    private Set<String> emails;
+
+    public KnownEmailEvent(Object source, String originService, Destination destination, Set<String> emails) {
+        super(source, originService, destination);
+        this.emails = emails;
+    }
+
+}
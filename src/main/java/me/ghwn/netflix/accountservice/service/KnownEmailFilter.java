@@ -0,0 +1,199 @@
+package me.ghwn.netflix.accountservice.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.ghwn.netflix.accountservice.repository.AccountRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the emails of all accounts.
+ * An email that the filter does not contain is certainly not taken, so signup can skip the existence query.
+ * The filter is only a shortcut: the unique index on the email column remains the source of truth,
+ * and until the filter is seeded every email is reported as possibly taken.
+ * <p>
+ * Deleted emails cannot be removed from a Bloom filter. They only raise the false positive rate,
+ * so the filter is rebuilt from the table once deletions or insertions exceed what it was sized for.
+ * A rebuilt filter is sized for at least twice the current number of accounts.
+ * <p>
+ * Emails added at signup are broadcast to the other instances over the bus. Until an instance has received them,
+ * i.e. for the flush interval plus the bus latency, or for as long as the bus is down or disabled, it reports them as
+ * new. A single signup with such an email is then hashed and only rejected by the unique index, and comes back as
+ * a conflict all the same. Batch signups always query for taken emails and do not depend on the filter.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<KnownEmailPublisher> publisher;
+
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final double rebuildRatio;
+
+    private volatile long capacity;
+    private volatile BloomFilter<String> filter;
+    private volatile BloomFilter<String> building;
+    private volatile boolean ready;
+    private final AtomicLong deletions = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final Counter definitelyNew;
+    private final Counter possiblyTaken;
+
+    public KnownEmailFilter(AccountRepository accountRepository,
+                            PlatformTransactionManager transactionManager,
+                            ObjectProvider<KnownEmailPublisher> publisher,
+                            Environment env,
+                            MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.publisher = publisher;
+        this.expectedInsertions = env.getProperty("account.email-filter.expected-insertions", Long.class, 1_000_000L);
+        this.falsePositiveRate = env.getProperty("account.email-filter.false-positive-rate", Double.class, 0.01);
+        this.rebuildRatio = env.getProperty("account.email-filter.rebuild-ratio", Double.class, 0.1);
+        this.capacity = expectedInsertions;
+        this.filter = newFilter(capacity);
+
+        this.definitelyNew = Counter.builder("account.email-filter.checks")
+                .tag("result", "definitely-new")
+                .register(meterRegistry);
+        this.possiblyTaken = Counter.builder("account.email-filter.checks")
+                .tag("result", "possibly-taken")
+                .register(meterRegistry);
+        Gauge.builder("account.email-filter.capacity", this, f -> f.capacity)
+                .description("Number of emails the current filter is sized for")
+                .register(meterRegistry);
+        Gauge.builder("account.email-filter.target-false-positive-rate", () -> falsePositiveRate)
+                .description("Configured false positive rate at the expected number of emails")
+                .register(meterRegistry);
+        Gauge.builder("account.email-filter.expected-false-positive-rate", this, f -> f.filter.expectedFpp())
+                .description("Estimated false positive rate with the emails added so far")
+                .register(meterRegistry);
+        Gauge.builder("account.email-filter.approximate-count", this, f -> f.filter.approximateElementCount())
+                .description("Estimated number of emails in the filter")
+                .register(meterRegistry);
+        Gauge.builder("account.email-filter.deletions", deletions, AtomicLong::get)
+                .description("Emails deleted since the filter was built")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether an email may belong to an account.
+     *
+     * @param email
+     * @return false only if no account has the email
+     */
+    public boolean mightContain(String email) {
+        if (ready && !filter.mightContain(normalize(email))) {
+            definitelyNew.increment();
+            return false;
+        }
+        possiblyTaken.increment();
+        return true;
+    }
+
+    /**
+     * Adds the email of a new account, here and on the other instances.
+     *
+     * @param email
+     */
+    public void add(String email) {
+        addLocally(email);
+        publisher.ifAvailable(p -> p.enqueue(email));
+    }
+
+    /**
+     * Adds an email on this instance only, e.g. when another instance has reported a signup.
+     *
+     * @param email
+     */
+    public void addLocally(String email) {
+        String key = normalize(email);
+        filter.put(key);
+        BloomFilter<String> next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        if (filter.approximateElementCount() > capacity) {
+            rebuildInBackground();
+        }
+    }
+
+    public void remove(String email) {
+        if (deletions.incrementAndGet() > capacity * rebuildRatio) {
+            rebuildInBackground();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    private void rebuildInBackground() {
+        if (!rebuilding.get()) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds a new filter from the account table and swaps it in.
+     * Emails added while the table is read go into both filters. An email added right at the swap may be missed,
+     * in which case its duplicate is still caught by the unique index.
+     */
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long rebuiltCapacity = Math.max(expectedInsertions, accountRepository.count() * 2);
+            BloomFilter<String> rebuilt = newFilter(rebuiltCapacity);
+            building = rebuilt;
+            long deletedBefore = deletions.get();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = accountRepository.streamAllEmails()) {
+                    emails.forEach(email -> rebuilt.put(normalize(email)));
+                }
+            });
+            capacity = rebuiltCapacity;
+            filter = rebuilt;
+            deletions.addAndGet(-deletedBefore);
+            ready = true;
+            log.info("Built email filter with about {} emails", rebuilt.approximateElementCount());
+        } catch (RuntimeException e) {
+            log.warn("Failed to build email filter", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private BloomFilter<String> newFilter(long capacity) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, falsePositiveRate);
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,29 @@
+package me.ghwn.netflix.accountservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnBusEnabled
+@Component
+public class KnownEmailListener {
+
+    private final KnownEmailFilter knownEmailFilter;
+    private final BusProperties busProperties;
+
+    @EventListener
+    public void onKnownEmail(KnownEmailEvent event) {
+        // The origin has already added these emails at signup.
+        if (busProperties.getId().equals(event.getOriginService())) {
+            return;
+        }
+        log.debug("Adding {} emails reported by {}", event.getEmails().size(), event.getOriginService());
+        event.getEmails().forEach(knownEmailFilter::addLocally);
+    }
+
+}
@@ -0,0 +1,47 @@
+package me.ghwn.netflix.accountservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects emails added to the email filter and broadcasts them over the bus in batches,
+ * in the same way as {@link me.ghwn.netflix.accountservice.cache.AccountCacheEvictionPublisher}.
+ */
+@RequiredArgsConstructor
+@ConditionalOnBusEnabled
+@Component
+public class KnownEmailPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination.Factory destinationFactory;
+
+    private Set<String> pendingEmails = new HashSet<>();
+
+    public synchronized void enqueue(String email) {
+        pendingEmails.add(email);
+    }
+
+    @Scheduled(fixedDelayString = "${account.email-filter.bus.flush-interval:100}")
+    public void flush() {
+        KnownEmailEvent event;
+        synchronized (this) {
+            if (pendingEmails.isEmpty()) {
+                return;
+            }
+            event = new KnownEmailEvent(this, busProperties.getId(), destinationFactory.getDestination(null),
+                    pendingEmails);
+            pendingEmails = new HashSet<>();
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+}
@@ -0,0 +1,53 @@
+package me.ghwn.netflix.accountservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Retries an operation that lost an optimistic locking race, up to account.update.max-attempts times in total.
+ * Only for operations that are safe to repeat, such as updates that set fields to given values
+ * without being conditional on the version the client has seen.
+ * Every attempt must run in its own transaction, so the operation has to call through the service proxy.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticLockRetry(Environment env, MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, env.getProperty("account.update.max-attempts", Integer.class, 3));
+        this.retries = Counter.builder("account.update.retries")
+                .description("Updates repeated after a concurrent update of the same account")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("account.update.conflicts")
+                .description("Updates that still conflicted after the last attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param operation
+     * @return result of the first attempt that succeeds
+     * @throws OptimisticLockingFailureException if the last attempt conflicts as well
+     */
+    public <T> T run(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+            }
+        }
+    }
+
+}
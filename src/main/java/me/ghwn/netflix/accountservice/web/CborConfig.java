@@ -0,0 +1,62 @@
+package me.ghwn.netflix.accountservice.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.HandlerInstantiator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Binary wire format for service-to-service calls.
+ * Account resources are also available as {@code application/cbor}, in the same HAL structure as
+ * {@code application/hal+json}, and request bodies can be sent the same way.
+ */
+@Configuration
+public class CborConfig {
+
+    /**
+     * Builds the CBOR converter from the Boot-configured Jackson builder, so that the {@code @JsonComponent}
+     * serializers, e.g. for error bodies, and the date settings apply as they do to JSON.
+     * It replaces the CBOR converter that Spring MVC registers by default, which does not render HAL.
+     *
+     * @param builder
+     * @param relProvider
+     * @param curieProvider
+     * @param halConfiguration
+     * @param messageResolver
+     * @return MappingJackson2CborHttpMessageConverter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter halCborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                               LinkRelationProvider relProvider,
+                                                                               ObjectProvider<CurieProvider> curieProvider,
+                                                                               ObjectProvider<HalConfiguration> halConfiguration,
+                                                                               MessageResolver messageResolver) {
+        HandlerInstantiator handlerInstantiator = new Jackson2HalModule.HalHandlerInstantiator(relProvider,
+                curieProvider.getIfAvailable(() -> CurieProvider.NONE), messageResolver,
+                halConfiguration.getIfAvailable(HalConfiguration::new));
+        return new MappingJackson2CborHttpMessageConverter(
+                halObjectMapper(builder.factory(new CBORFactory()), handlerInstantiator));
+    }
+
+    /**
+     * @param builder builder of the mapper, with the data format's factory
+     * @param handlerInstantiator
+     * @return ObjectMapper that reads and writes HAL
+     */
+    public static ObjectMapper halObjectMapper(Jackson2ObjectMapperBuilder builder, HandlerInstantiator handlerInstantiator) {
+        ObjectMapper objectMapper = builder.build();
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(handlerInstantiator);
+        return objectMapper;
+    }
+
+}
@@ -0,0 +1,54 @@
+package me.ghwn.netflix.accountservice.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses API responses, with account.compression.* settings.
+ * This is used instead of server.compression, which only offers gzip at a fixed level and is not measured.
+ */
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.compression.enabled", havingValue = "true", matchIfMissing = true)
+@Configuration
+public class CompressionConfig {
+
+    private static final String DEFAULT_MIME_TYPES =
+            "application/hal+json,application/json,application/x-ndjson,application/cbor";
+
+    private final Environment env;
+
+    /**
+     * Registers the compression filter around Spring Security, so that error bodies written by it
+     * are compressed as well.
+     *
+     * @param meterRegistry
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(MeterRegistry meterRegistry) {
+        DataSize minResponseSize = env.getProperty("account.compression.min-response-size", DataSize.class,
+                DataSize.ofKilobytes(2));
+        int level = env.getProperty("account.compression.level", Integer.class, Deflater.BEST_SPEED);
+        List<MediaType> mimeTypes = MediaType.parseMediaTypes(
+                env.getProperty("account.compression.mime-types", DEFAULT_MIME_TYPES));
+        int poolSize = env.getProperty("account.compression.pool-size", Integer.class, 64);
+
+        FilterRegistrationBean<ResponseCompressionFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCompressionFilter((int) minResponseSize.toBytes(), level, mimeTypes, poolSize, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
+}
@@ -0,0 +1,63 @@
+package me.ghwn.netflix.accountservice.web;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pools of the buffers and deflaters used to compress responses, so that large responses do not
+ * allocate new ones every time. Borrowing never blocks: an empty pool creates a new instance, and an instance
+ * released to a full pool is dropped. Dropped deflaters are ended right away to free their native memory.
+ * Queues are used instead of thread locals, so that pooling also works on virtual threads.
+ */
+class CompressionPool {
+
+    private final int bufferSize;
+    private final int level;
+    private final BlockingQueue<byte[]> buffers;
+    private final BlockingQueue<Deflater> gzipDeflaters;
+    private final BlockingQueue<Deflater> zlibDeflaters;
+
+    /**
+     * @param bufferSize
+     * @param level deflate compression level
+     * @param capacity maximum number of pooled instances of each kind
+     */
+    CompressionPool(int bufferSize, int level, int capacity) {
+        this.bufferSize = bufferSize;
+        this.level = level;
+        this.buffers = new ArrayBlockingQueue<>(capacity);
+        this.gzipDeflaters = new ArrayBlockingQueue<>(capacity);
+        this.zlibDeflaters = new ArrayBlockingQueue<>(capacity);
+    }
+
+    byte[] borrowBuffer() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    void releaseBuffer(byte[] buffer) {
+        buffers.offer(buffer);
+    }
+
+    /**
+     * @param nowrap true for raw deflate data to wrap in gzip, false for zlib data
+     * @return Deflater
+     */
+    Deflater borrowDeflater(boolean nowrap) {
+        Deflater deflater = deflaters(nowrap).poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    void releaseDeflater(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        if (!deflaters(nowrap).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private BlockingQueue<Deflater> deflaters(boolean nowrap) {
+        return nowrap ? gzipDeflaters : zlibDeflaters;
+    }
+
+}
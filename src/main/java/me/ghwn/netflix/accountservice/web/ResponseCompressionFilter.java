@@ -0,0 +1,676 @@
+package me.ghwn.netflix.accountservice.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses response bodies with gzip or deflate, as negotiated with Accept-Encoding.
+ * A body is held in a pooled buffer until it reaches the minimum size. Smaller bodies are sent as is
+ * with a Content-Length; larger ones of a compressible content type are compressed while they are written.
+ * Buffers and deflaters are borrowed from a {@link CompressionPool} and returned when the response is complete.
+ * Body and transferred bytes are counted per encoding.
+ * <p>
+ * The entity tag of a compressed response gets the encoding as a suffix, e.g. {@code "1-2-gzip"}, like with
+ * Apache's DeflateAlterETag, since a strong tag must not be shared by different bodies. The suffix is removed from
+ * If-None-Match before the request is handled, and added again to the tag of a 304 response.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final String IDENTITY = "identity";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    enum Encoding {
+        GZIP("gzip"), DEFLATE("deflate");
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+    }
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final CompressionPool pool;
+    private final Map<String, Counter> bodyBytes = new HashMap<>();
+    private final Map<String, Counter> transferredBytes = new HashMap<>();
+
+    /**
+     * @param minResponseSize smallest body in bytes to compress
+     * @param level deflate compression level
+     * @param mimeTypes content types to compress
+     * @param poolSize maximum number of pooled buffers and deflaters of each kind
+     * @param meterRegistry
+     */
+    public ResponseCompressionFilter(int minResponseSize, int level, List<MediaType> mimeTypes, int poolSize,
+                                     MeterRegistry meterRegistry) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+        this.pool = new CompressionPool(Math.max(minResponseSize, 8192), level, poolSize);
+        for (String encoding : List.of(Encoding.GZIP.token, Encoding.DEFLATE.token, IDENTITY)) {
+            bodyBytes.put(encoding, Counter.builder("account.response.body.bytes")
+                    .description("Response body bytes before compression")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry));
+            transferredBytes.put(encoding, Counter.builder("account.response.transferred.bytes")
+                    .description("Response body bytes sent, after compression")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        List<String> ifNoneMatchValues = Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH));
+        String ifNoneMatch = ifNoneMatchValues.isEmpty() ? null : String.join(", ", ifNoneMatchValues);
+        Encoding ifNoneMatchEncoding = ifNoneMatch != null ? encodingOf(ifNoneMatch) : null;
+        CompressingResponse compressingResponse = new CompressingResponse(response,
+                negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)), ifNoneMatchEncoding);
+        boolean async = false;
+        try {
+            filterChain.doFilter(ifNoneMatchEncoding != null ? new DecodedETagRequest(request, ifNoneMatch) : request,
+                    compressingResponse);
+            if (isAsyncStarted(request)) {
+                async = true;
+                request.getAsyncContext().addListener(new FinishingListener(compressingResponse));
+            } else {
+                compressingResponse.finish();
+            }
+        } finally {
+            if (!async) {
+                compressingResponse.release();
+            }
+        }
+    }
+
+    /**
+     * Picks the encoding with the highest quality value, gzip on a tie.
+     *
+     * @param acceptEncoding Accept-Encoding header value, or null if the header is absent
+     * @return Encoding, or null if the response must not be compressed
+     */
+    static Encoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        Encoding negotiated = null;
+        double negotiatedQuality = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String token = parameters[0].trim().toLowerCase(Locale.ROOT);
+            Encoding encoding = token.equals("gzip") || token.equals("x-gzip") ? Encoding.GZIP
+                    : token.equals("deflate") ? Encoding.DEFLATE
+                    : null;
+            if (encoding == null) {
+                continue;
+            }
+            double quality = quality(parameters);
+            if (quality > negotiatedQuality || (quality > 0 && quality == negotiatedQuality && encoding == Encoding.GZIP)) {
+                negotiated = encoding;
+                negotiatedQuality = quality;
+            }
+        }
+        return negotiated;
+    }
+
+    /**
+     * @param eTag entity tag, quoted and possibly weak
+     * @param encoding
+     * @return the entity tag of the body in the encoding
+     */
+    static String withEncoding(String eTag, Encoding encoding) {
+        int end = eTag.lastIndexOf('"');
+        if (end <= 0 || eTag.indexOf('"') == end) {
+            return eTag;
+        }
+        return eTag.substring(0, end) + "-" + encoding.token + eTag.substring(end);
+    }
+
+    /**
+     * @param eTags comma separated entity tags
+     * @return the encoding of the first entity tag with an encoding suffix, or null if there is none
+     */
+    static Encoding encodingOf(String eTags) {
+        for (String eTag : eTags.split(",")) {
+            eTag = eTag.trim();
+            for (Encoding encoding : Encoding.values()) {
+                if (eTag.endsWith("-" + encoding.token + "\"")) {
+                    return encoding;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param eTags comma separated entity tags
+     * @return the entity tags without encoding suffixes
+     */
+    static String withoutEncoding(String eTags) {
+        StringBuilder decoded = new StringBuilder(eTags.length());
+        for (String eTag : eTags.split(",")) {
+            eTag = eTag.trim();
+            for (Encoding encoding : Encoding.values()) {
+                String suffix = "-" + encoding.token + "\"";
+                if (eTag.endsWith(suffix)) {
+                    eTag = eTag.substring(0, eTag.length() - suffix.length()) + "\"";
+                    break;
+                }
+            }
+            decoded.append(decoded.length() == 0 ? "" : ", ").append(eTag);
+        }
+        return decoded.toString();
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final Encoding encoding;
+        private final Encoding ifNoneMatchEncoding;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+        private Long contentLength;
+        private boolean bypassed;
+
+        /**
+         * @param response
+         * @param encoding negotiated encoding, or null if the response must not be compressed
+         * @param ifNoneMatchEncoding encoding of the entity tag in If-None-Match, to be restored on a 304 response
+         */
+        CompressingResponse(HttpServletResponse response, Encoding encoding, Encoding ifNoneMatchEncoding) {
+            super(response);
+            this.encoding = encoding;
+            this.ifNoneMatchEncoding = ifNoneMatchEncoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            return stream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (outputStream != null && outputStream.started()) {
+                // The length of a compressed body is not known in advance
+                if (outputStream.encoding == null) {
+                    super.setContentLengthLong(len);
+                }
+            } else {
+                contentLength = len;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, notModifiedETag(name, value));
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, notModifiedETag(name, value));
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+            // Committing now would send the headers before the encoding is decided
+            if (outputStream == null || outputStream.started()) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = null;
+            if (outputStream != null) {
+                outputStream.resetBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (outputStream != null) {
+                outputStream.resetBuffer();
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            bypassed = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            bypassed = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            bypassed = true;
+            super.sendRedirect(location);
+        }
+
+        /**
+         * Writes out what is still buffered and ends the compressed data.
+         *
+         * @throws IOException
+         */
+        void finish() throws IOException {
+            if (bypassed) {
+                return;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            } else if (contentLength != null) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+
+        void release() {
+            if (outputStream != null) {
+                outputStream.release();
+            }
+        }
+
+        /**
+         * A 304 response confirms the tag the client has, so a tag that matched without its encoding suffix
+         * gets the suffix back.
+         */
+        private String notModifiedETag(String name, String value) {
+            if (ifNoneMatchEncoding != null && HttpHeaders.ETAG.equalsIgnoreCase(name)
+                    && getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+                return withEncoding(value, ifNoneMatchEncoding);
+            }
+            return value;
+        }
+
+        private CompressingOutputStream stream() {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        private boolean compressible() {
+            if (encoding == null || getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+                return false;
+            }
+            int status = getStatus();
+            if (status == HttpStatus.NO_CONTENT.value() || status == HttpStatus.NOT_MODIFIED.value()
+                    || status == HttpStatus.PARTIAL_CONTENT.value()) {
+                return false;
+            }
+            String contentType = getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            try {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(mediaType));
+            } catch (InvalidMediaTypeException e) {
+                return false;
+            }
+        }
+
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        private final CompressingResponse response;
+        private final byte[] single = new byte[1];
+        private byte[] buffer;
+        private int count;
+        private ServletOutputStream target;
+        private Encoding encoding;
+        private Deflater deflater;
+        private CRC32 crc;
+        private byte[] deflateBuffer;
+        private long written;
+        private long transferred;
+        private boolean finished;
+
+        CompressingOutputStream(CompressingResponse response) {
+            this.response = response;
+            this.buffer = pool.borrowBuffer();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Response has already been completed");
+            }
+            written += len;
+            if (target == null) {
+                if (count + len < minResponseSize) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                start(true);
+                writeBody(buffer, 0, count);
+                count = 0;
+            }
+            writeBody(b, off, len);
+        }
+
+        /**
+         * Flushes compressed data written so far. A body that is still buffered is kept, since the encoding
+         * can only be chosen once it is known whether the body reaches the minimum size.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                return;
+            }
+            if (deflater != null) {
+                while (deflate(Deflater.SYNC_FLUSH) == deflateBuffer.length) {
+                    // the output buffer was full, so more may be pending
+                }
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target == null || target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                response.getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        boolean started() {
+            return target != null;
+        }
+
+        void resetBuffer() {
+            if (target == null) {
+                count = 0;
+                written = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                if (count == 0 && response.contentLength == null) {
+                    return;
+                }
+                start(false);
+                writeBody(buffer, 0, count);
+            }
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+                if (crc != null) {
+                    byte[] trailer = new byte[8];
+                    writeIntLE(trailer, 0, (int) crc.getValue());
+                    writeIntLE(trailer, 4, (int) deflater.getBytesRead());
+                    writeTarget(trailer, 0, trailer.length);
+                }
+            }
+            String tag = encoding != null ? encoding.token : IDENTITY;
+            bodyBytes.get(tag).increment(written);
+            transferredBytes.get(tag).increment(transferred);
+        }
+
+        void release() {
+            if (buffer != null) {
+                pool.releaseBuffer(buffer);
+                buffer = null;
+            }
+            if (deflateBuffer != null) {
+                pool.releaseBuffer(deflateBuffer);
+                deflateBuffer = null;
+            }
+            if (deflater != null) {
+                pool.releaseDeflater(deflater, encoding == Encoding.GZIP);
+                deflater = null;
+            }
+        }
+
+        /**
+         * Chooses the encoding and sends the headers for it.
+         *
+         * @param large whether the body reaches the minimum size
+         * @throws IOException
+         */
+        private void start(boolean large) throws IOException {
+            if (large && response.compressible()) {
+                encoding = response.encoding;
+                response.getResponse().setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token);
+                String eTag = response.getHeader(HttpHeaders.ETAG);
+                if (eTag != null) {
+                    response.getResponse().setHeader(HttpHeaders.ETAG, withEncoding(eTag, encoding));
+                }
+                deflater = pool.borrowDeflater(encoding == Encoding.GZIP);
+                deflateBuffer = pool.borrowBuffer();
+            } else if (response.contentLength != null) {
+                response.getResponse().setContentLengthLong(response.contentLength);
+            } else if (!large) {
+                response.getResponse().setContentLength(count);
+            }
+            target = response.getResponse().getOutputStream();
+            if (encoding == Encoding.GZIP) {
+                crc = new CRC32();
+                writeTarget(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+        }
+
+        private void writeBody(byte[] b, int off, int len) throws IOException {
+            if (deflater == null) {
+                writeTarget(b, off, len);
+                return;
+            }
+            if (crc != null) {
+                crc.update(b, off, len);
+            }
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+        }
+
+        private int deflate(int flush) throws IOException {
+            int length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, flush);
+            if (length > 0) {
+                writeTarget(deflateBuffer, 0, length);
+            }
+            return length;
+        }
+
+        private void writeTarget(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            transferred += len;
+        }
+
+        private void writeIntLE(byte[] b, int off, int value) {
+            b[off] = (byte) value;
+            b[off + 1] = (byte) (value >> 8);
+            b[off + 2] = (byte) (value >> 16);
+            b[off + 3] = (byte) (value >> 24);
+        }
+
+    }
+
+    /**
+     * Request with the encoding suffixes removed from If-None-Match, so that the application compares
+     * the tags of its own, uncompressed bodies.
+     */
+    private static class DecodedETagRequest extends HttpServletRequestWrapper {
+
+        private final String ifNoneMatch;
+
+        DecodedETagRequest(HttpServletRequest request, String ifNoneMatch) {
+            super(request);
+            this.ifNoneMatch = withoutEncoding(ifNoneMatch);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? ifNoneMatch : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)
+                    ? Collections.enumeration(List.of(ifNoneMatch))
+                    : super.getHeaders(name);
+        }
+
+    }
+
+    private static class FinishingListener implements AsyncListener {
+
+        private final CompressingResponse response;
+
+        FinishingListener(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            try {
+                response.finish();
+            } finally {
+                response.release();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.ghwn.netflix.accountservice.datasource.PrimaryStickiness;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the bus on top of the in-memory test binder instead of RabbitMQ.
+ */
+@Import(TestChannelBinderConfiguration.class)
+@SpringBootTest(properties = {
+        "spring.cloud.bus.enabled=true",
+        "spring.cloud.bus.id=account-service:test",
+        "spring.cloud.stream.default-binder=integration",
+        "account.cache.bus.flush-interval=50"
+})
+class AccountCacheBusTest {
+
+    private static final String BUS_DESTINATION = "springCloudBus";
+
+    @Autowired AccountCache accountCache;
+    @Autowired CacheManager cacheManager;
+    @Autowired InputDestination input;
+    @Autowired OutputDestination output;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired PrimaryStickiness primaryStickiness;
+
+    @DisplayName("A burst of evictions is coalesced into a single bus event")
+    @Test
+    void coalesceEvictions() throws Exception {
+        String accountId1 = UUID.randomUUID().toString();
+        String accountId2 = UUID.randomUUID().toString();
+
+        accountCache.evict(1L, accountId1, "user1@example.com");
+        accountCache.evict(1L, accountId1, "user1@example.com");
+        accountCache.evict(2L, accountId2, "user2@example.com");
+
+        List<JsonNode> events = receiveEvictionEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).get("accountIds")).hasSize(2);
+        assertThat(events.get(0).get("emails")).hasSize(2);
+        assertThat(events.get(0).get("ids")).hasSize(2);
+    }
+
+    @DisplayName("An eviction event from another instance evicts the local cache entry and sticks reads to the primary")
+    @Test
+    void evictOnRemoteEvent() throws Exception {
+        AccountDto account = new AccountDto();
+        account.setId(100L);
+        account.setAccountId(UUID.randomUUID().toString());
+        account.setEmail("remote@example.com");
+        accountCache.put(account);
+
+        Map<String, Object> event = Map.of(
+                "type", AccountCacheEvictionEvent.class.getSimpleName(),
+                "id", UUID.randomUUID().toString(),
+                "originService", "account-service:other",
+                "destinationService", "**",
+                "ids", List.of(account.getId()),
+                "accountIds", List.of(account.getAccountId()),
+                "emails", List.of(account.getEmail())
+        );
+        Message<byte[]> message = MessageBuilder.withPayload(objectMapper.writeValueAsBytes(event))
+                .setHeader("contentType", "application/json")
+                .build();
+        input.send(message, BUS_DESTINATION);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId()) != null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(cacheManager.getCache(AccountCache.BY_ID).get(account.getId())).isNull();
+        assertThat(cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId())).isNull();
+        assertThat(cacheManager.getCache(AccountCache.BY_EMAIL).get(account.getEmail())).isNull();
+        assertThat(primaryStickiness.isRecentlyWritten(account.getId())).isTrue();
+        assertThat(primaryStickiness.isRecentlyWritten(account.getAccountId())).isTrue();
+        assertThat(primaryStickiness.isRecentlyWritten(account.getEmail())).isTrue();
+    }
+
+    private List<JsonNode> receiveEvictionEvents() throws Exception {
+        List<JsonNode> events = new ArrayList<>();
+        Message<byte[]> message;
+        while ((message = output.receive(1000, BUS_DESTINATION)) != null) {
+            JsonNode payload = objectMapper.readTree(message.getPayload());
+            if (AccountCacheEvictionEvent.class.getSimpleName().equals(payload.path("type").asText())) {
+                events.add(payload);
+            }
+        }
+        return events;
+    }
+
+}
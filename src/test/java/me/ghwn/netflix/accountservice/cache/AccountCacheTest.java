@@ -0,0 +1,67 @@
+package me.ghwn.netflix.accountservice.cache;
+
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.service.AccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class AccountCacheTest {
+
+    @Autowired AccountService accountService;
+    @Autowired CacheManager cacheManager;
+
+    @DisplayName("Looking up an account by accountId caches it under all of its keys")
+    @Test
+    void cacheAccountUnderAllKeys() {
+        AccountDto created = accountService.createAccount(
+                new SignupRequest("cached@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+
+        AccountDto account = accountService.getAccountByAccountId(created.getAccountId());
+
+        assertThat(cacheManager.getCache(AccountCache.BY_ID).get(account.getId())).isNotNull();
+        assertThat(cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId())).isNotNull();
+        assertThat(cacheManager.getCache(AccountCache.BY_EMAIL).get(account.getEmail())).isNotNull();
+        assertThat(accountService.getAccountById(account.getId())).isSameAs(account);
+    }
+
+    @DisplayName("Updating an account evicts it from the cache")
+    @Test
+    void evictAccountOnUpdate() {
+        AccountDto created = accountService.createAccount(
+                new SignupRequest("updated@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        AccountDto account = accountService.getAccountByAccountId(created.getAccountId());
+
+        accountService.updateAccount(account.getId(), new AccountUpdateRequest("newP@ssw0rd1234", false, null));
+
+        assertThat(cacheManager.getCache(AccountCache.BY_ID).get(account.getId())).isNull();
+        assertThat(cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId())).isNull();
+        assertThat(cacheManager.getCache(AccountCache.BY_EMAIL).get(account.getEmail())).isNull();
+        assertThat(accountService.getAccountByAccountId(account.getAccountId()).isActive()).isFalse();
+    }
+
+    @DisplayName("Deleting an account evicts it from the cache")
+    @Test
+    void evictAccountOnDelete() {
+        AccountDto created = accountService.createAccount(
+                new SignupRequest("deleted@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        AccountDto account = accountService.getAccountByAccountId(created.getAccountId());
+
+        accountService.deleteAccount(account.getId());
+
+        assertThat(cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId())).isNull();
+    }
+
+}
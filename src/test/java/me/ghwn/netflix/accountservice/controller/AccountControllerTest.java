@@ -1,7 +1,12 @@
 package me.ghwn.netflix.accountservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountLookupRequest;
 import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.BatchSignupRequest;
 import me.ghwn.netflix.accountservice.dto.SignupRequest;
 import me.ghwn.netflix.accountservice.entity.Account;
 import me.ghwn.netflix.accountservice.entity.AccountRole;
@@ -18,6 +23,7 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.io.Serializable;
@@ -137,6 +143,72 @@ class AccountControllerTest extends BaseControllerTest {
                 ));
     }
 
+    @DisplayName("Try to create new account with an email that is already taken")
+    @Test
+    void createAccountWithTakenEmail() throws Exception {
+        accountService.createAccount(new SignupRequest("taken@example.com", "P@ssw0rd1234", true, null));
+        SignupRequest request = new SignupRequest("taken@example.com", "P@ssw0rd1234", true, null);
+
+        mockMvc.perform(post("/api/v1/accounts")
+                        .accept(MediaTypes.HAL_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0].message").value("Email already exists"))
+                .andExpect(jsonPath("_links.index.href").exists());
+    }
+
+    @DisplayName("Create accounts in a batch with a result per account")
+    @Test
+    void createAccounts() throws Exception {
+        accountService.createAccount(new SignupRequest("taken@example.com", "P@ssw0rd1234", true, null));
+        BatchSignupRequest request = new BatchSignupRequest(List.of(
+                new SignupRequest("batch1@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)),
+                new SignupRequest("taken@example.com", "P@ssw0rd1234", true, null),
+                new SignupRequest("batch2@example.com", "P@ssw0rd1234", false, Set.of(AccountRole.ADMIN)),
+                new SignupRequest("batch1@example.com", "P@ssw0rd1234", true, null)
+        ));
+
+        mockMvc.perform(post("/api/v1/accounts/batch")
+                        .accept(MediaTypes.HAL_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("results.length()").value(4))
+                .andExpect(jsonPath("results[0].status").value(201))
+                .andExpect(jsonPath("results[0].account.accountId").exists())
+                .andExpect(jsonPath("results[0].account.password").doesNotExist())
+                .andExpect(jsonPath("results[1].status").value(409))
+                .andExpect(jsonPath("results[1].message").exists())
+                .andExpect(jsonPath("results[2].status").value(201))
+                .andExpect(jsonPath("results[2].account.active").value(false))
+                .andExpect(jsonPath("results[3].status").value(409))
+                .andExpect(jsonPath("_links.self.href").exists())
+                .andExpect(jsonPath("_links.profile.href").exists());
+
+        Account account = accountRepository.findByEmail("batch2@example.com").orElseThrow();
+        assertThat(passwordEncoder.matches("P@ssw0rd1234", account.getPassword())).isTrue();
+        assertThat(account.getRoles()).containsExactly(AccountRole.ADMIN);
+    }
+
+    @DisplayName("Try to create accounts in a batch that contains an invalid request")
+    @Test
+    void createAccountsWithInvalidRequest() throws Exception {
+        BatchSignupRequest request = new BatchSignupRequest(List.of(
+                new SignupRequest("valid@example.com", "P@ssw0rd1234", true, null),
+                new SignupRequest("invalid", "short", true, null)
+        ));
+
+        mockMvc.perform(post("/api/v1/accounts/batch")
+                        .accept(MediaTypes.HAL_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors.length()").value(2));
+
+        assertThat(accountRepository.findByEmail("valid@example.com")).isEmpty();
+    }
+
     @DisplayName("Try to create new account with email that is null or empty")
     @NullAndEmptySource
     @ParameterizedTest
@@ -353,6 +425,99 @@ class AccountControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("_links.profile.href").exists());
     }
 
+    @DisplayName("Get an unchanged account with 304 by ETag or Last-Modified")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void getUnchangedAccountDetail() throws Exception {
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "user@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(AccountController.PREFER)))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Try to update and delete an account with a stale ETag")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void updateAndDeleteAccountWithStaleETag() throws Exception {
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "user@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        String eTag = mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        AccountUpdateRequest request = new AccountUpdateRequest("newP@ssw0rd1234", false, null);
+
+        String updatedETag = mockMvc.perform(put("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        mockMvc.perform(put("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AccountUpdateRequest("newP@ssw0rd1234", true, null))))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("errors[*].message").exists());
+        mockMvc.perform(delete("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_MATCH, eTag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_MATCH, updatedETag))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("A CBOR representation has its own ETag, which is accepted by If-Match as well, also when compressed")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void updateAccountWithETagOfOtherFormat() throws Exception {
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "user@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        String jsonETag = mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborETag = mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(cborETag).isNotEqualTo(jsonETag);
+
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk());
+        String compressedCborETag = cborETag.substring(0, cborETag.length() - 1) + "-gzip\"";
+        mockMvc.perform(put("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .header(HttpHeaders.IF_MATCH, compressedCborETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AccountUpdateRequest("newP@ssw0rd1234", false, null))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(jsonETag)));
+    }
+
     @DisplayName("Try to get non-existent account")
     @WithMockAccountContext(email = "user@example.com", roles = {"USER"})
     @Test
@@ -432,6 +597,260 @@ class AccountControllerTest extends BaseControllerTest {
                 ));
     }
 
+    @DisplayName("Get account list by cursor without counting accounts")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void getAccountListByCursor() throws Exception {
+        List<AccountDto> accounts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SignupRequest signupRequest = new SignupRequest(
+                    String.format("cursor%d@example.com", (i + 1)),
+                    "P@ssw0rd1234",
+                    true,
+                    Set.of(AccountRole.USER)
+            );
+            accounts.add(accountService.createAccount(signupRequest));
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/accounts").param("after", "").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
+                .andExpect(jsonPath("_embedded.accounts.length()").value(2))
+                .andExpect(jsonPath("_embedded.accounts[0].email").value("cursor1@example.com"))
+                .andExpect(jsonPath("_embedded.accounts[0]._links.self.href")
+                        .value(endsWith("/api/v1/accounts/" + accounts.get(0).getAccountId())))
+                .andExpect(jsonPath("_embedded.accounts[*].password").doesNotExist())
+                .andExpect(jsonPath("_links.next.href").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andExpect(jsonPath("_links.first.href").exists())
+                .andExpect(jsonPath("page").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String next = objectMapper.readTree(firstPage).at("/_links/next/href").asText();
+        String secondPage = mockMvc.perform(get(next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.accounts.length()").value(2))
+                .andExpect(jsonPath("_embedded.accounts[0].email").value("cursor3@example.com"))
+                .andExpect(jsonPath("_links.prev.href").exists())
+                .andExpect(jsonPath("_links.next.href").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        String prev = objectMapper.readTree(secondPage).at("/_links/prev/href").asText();
+        mockMvc.perform(get(prev))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.accounts.length()").value(2))
+                .andExpect(jsonPath("_embedded.accounts[0].email").value("cursor1@example.com"))
+                .andExpect(jsonPath("_embedded.accounts[1].email").value("cursor2@example.com"))
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andExpect(jsonPath("_links.next.href").exists());
+    }
+
+    @DisplayName("Try to get account list with an invalid cursor")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void getAccountListWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts").param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Get an account with selected fields only")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void getAccountDetailWithFields() throws Exception {
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "fields@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        String eTag = mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .param("fields", "accountId,email,active"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(AccountController.PREFER)))
+                .andExpect(jsonPath("accountId").value(account.getAccountId()))
+                .andExpect(jsonPath("email").value(account.getEmail()))
+                .andExpect(jsonPath("active").value(true))
+                .andExpect(jsonPath("id").doesNotExist())
+                .andExpect(jsonPath("roles").doesNotExist())
+                .andExpect(jsonPath("_links.self.href").exists());
+
+        mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .param("fields", "email")
+                        .header(AccountController.PREFER, AccountController.RETURN_MINIMAL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AccountController.PREFERENCE_APPLIED, AccountController.RETURN_MINIMAL))
+                .andExpect(jsonPath("email").value(account.getEmail()))
+                .andExpect(jsonPath("accountId").doesNotExist())
+                .andExpect(jsonPath("_links").doesNotExist());
+    }
+
+    @DisplayName("Get an account and an error as CBOR")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void getAccountDetailAsCbor() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "cbor@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+
+        byte[] detail = mockMvc.perform(get("/api/v1/accounts/{accountId}", account.getAccountId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode node = cborMapper.readTree(detail);
+        assertThat(node.path("accountId").asText()).isEqualTo(account.getAccountId());
+        assertThat(node.path("email").asText()).isEqualTo(account.getEmail());
+        assertThat(node.has("password")).isFalse();
+        assertThat(node.at("/_links/self/href").asText()).endsWith("/api/v1/accounts/" + account.getAccountId());
+
+        byte[] error = mockMvc.perform(get("/api/v1/accounts/{accountId}", UUID.randomUUID().toString())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(cborMapper.readTree(error).at("/errors/0/message").asText()).isNotEmpty();
+    }
+
+    @DisplayName("Get account list with selected fields and without links")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void getAccountListWithFields() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            SignupRequest signupRequest = new SignupRequest(
+                    String.format("fields%d@example.com", (i + 1)),
+                    "P@ssw0rd1234",
+                    true,
+                    Set.of(AccountRole.USER)
+            );
+            accountService.createAccount(signupRequest);
+        }
+
+        mockMvc.perform(get("/api/v1/accounts")
+                        .param("fields", "accountId,email,active")
+                        .header(AccountController.PREFER, AccountController.RETURN_MINIMAL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AccountController.PREFERENCE_APPLIED, AccountController.RETURN_MINIMAL))
+                .andExpect(jsonPath("_embedded.accounts[*].accountId").exists())
+                .andExpect(jsonPath("_embedded.accounts[*].email").exists())
+                .andExpect(jsonPath("_embedded.accounts[*].active").exists())
+                .andExpect(jsonPath("_embedded.accounts[*].id").doesNotExist())
+                .andExpect(jsonPath("_embedded.accounts[*].roles").doesNotExist())
+                .andExpect(jsonPath("_embedded.accounts[*]._links").doesNotExist())
+                .andExpect(jsonPath("_links").doesNotExist())
+                .andExpect(jsonPath("page.totalElements").exists());
+
+        mockMvc.perform(get("/api/v1/accounts").param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.accounts[*].email").exists())
+                .andExpect(jsonPath("_embedded.accounts[*].accountId").doesNotExist())
+                .andExpect(jsonPath("_embedded.accounts[*]._links.self.href").exists());
+
+        mockMvc.perform(get("/api/v1/accounts").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Export all accounts as newline delimited JSON")
+    @WithMockAccountContext(email = "admin@example.com", roles = {"USER", "ADMIN"})
+    @Test
+    void exportAccounts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            SignupRequest signupRequest = new SignupRequest(
+                    String.format("export%d@example.com", (i + 1)),
+                    "P@ssw0rd1234",
+                    true,
+                    Set.of(AccountRole.USER, AccountRole.ADMIN)
+            );
+            accountService.createAccount(signupRequest);
+        }
+
+        String content = mockMvc.perform(get("/api/v1/accounts/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(AccountController.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(content).endsWith("}\n");
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize(3);
+        for (String line : lines) {
+            assertThat(line).startsWith("{\"");
+            Map<?, ?> account = objectMapper.readValue(line, Map.class);
+            assertThat(account.get("email")).asString().startsWith("export");
+            assertThat(account).containsKeys("id", "accountId", "active", "createdAt", "updatedAt");
+            assertThat(account).doesNotContainKey("password");
+            assertThat((List<?>) account.get("roles")).containsExactlyInAnyOrder("USER", "ADMIN");
+        }
+    }
+
+    @DisplayName("Look up several accounts by accountId at once")
+    @Test
+    void lookupAccounts() throws Exception {
+        List<String> accountIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SignupRequest signupRequest = new SignupRequest(
+                    String.format("lookup%d@example.com", (i + 1)),
+                    "P@ssw0rd1234",
+                    true,
+                    Set.of(AccountRole.USER)
+            );
+            accountIds.add(accountService.createAccount(signupRequest).getAccountId());
+        }
+        // Served from the cache while the others are loaded
+        accountService.getAccountByAccountId(accountIds.get(1));
+        accountIds.add(UUID.randomUUID().toString());
+        AccountLookupRequest request = new AccountLookupRequest(accountIds);
+
+        mockMvc.perform(post("/api/v1/accounts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("[0].accountId").value(accountIds.get(0)))
+                .andExpect(jsonPath("[1].accountId").value(accountIds.get(1)))
+                .andExpect(jsonPath("[2].accountId").value(accountIds.get(2)))
+                .andExpect(jsonPath("[*].password").doesNotExist())
+                .andExpect(jsonPath("[*]._links").doesNotExist())
+
+                .andDo(documentHandler.document(
+                        requestFields(
+                                fieldWithPath("accountIds").description("Account IDs to look up, up to " + AccountLookupRequest.MAX_SIZE)
+                        ),
+                        responseFields(
+                                fieldWithPath("[].id").description("ID of account"),
+                                fieldWithPath("[].accountId").description("URL identifier of account"),
+                                fieldWithPath("[].email").description("Email of account"),
+                                fieldWithPath("[].active").description("Whether the account is active or not"),
+                                fieldWithPath("[].roles").description("Authorities of account"),
+                                fieldWithPath("[].createdAt").description("Created date and time of the account"),
+                                fieldWithPath("[].updatedAt").description("Last updated date and time of the account")
+                        )
+                ));
+    }
+
+    @DisplayName("Look up accounts with selected fields only")
+    @Test
+    void lookupAccountsWithFields() throws Exception {
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "lookup@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        AccountLookupRequest request = new AccountLookupRequest(List.of(account.getAccountId()));
+
+        mockMvc.perform(post("/api/v1/accounts/lookup")
+                        .param("fields", "accountId,email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("[0].accountId").value(account.getAccountId()))
+                .andExpect(jsonPath("[0].email").value(account.getEmail()))
+                .andExpect(jsonPath("[0].id").doesNotExist())
+                .andExpect(jsonPath("[0].roles").doesNotExist());
+
+        mockMvc.perform(post("/api/v1/accounts/lookup")
+                        .param("fields", "password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Disabled
     @DisplayName("Update an existing account successfully")
     @WithMockAccountContext(email = "user@example.com", roles = {"USER"})
@@ -0,0 +1,39 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+class AccountLinksTest {
+
+    AccountLinks accountLinks = new AccountLinks();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @DisplayName("Account links are the same as the ones built by WebMvcLinkBuilder, for each origin")
+    @Test
+    void buildSameLinksAsWebMvcLinkBuilder() {
+        for (String host : new String[]{"localhost", "accounts.example.com", "localhost"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/accounts/1");
+            request.setServerName(host);
+            request.setContextPath("");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+            String accountsUri = accountLinks.accounts();
+
+            assertThat(accountsUri).isEqualTo(linkTo(AccountController.class).withSelfRel().getHref());
+            assertThat(AccountLinks.account(accountsUri, 1L))
+                    .isEqualTo(linkTo(AccountController.class).slash(1L).withSelfRel().getHref());
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package me.ghwn.netflix.accountservice.controller;
+
+import me.ghwn.netflix.accountservice.dto.TokenIntrospectionRequest;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.security.AccessTokenIssuer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.restdocs.payload.PayloadDocumentation.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class TokenControllerTest extends BaseControllerTest {
+
+    @Autowired AccessTokenIssuer accessTokenIssuer;
+
+    @DisplayName("Introspect several access tokens at once")
+    @Test
+    void introspectTokens() throws Exception {
+        String token = accessTokenIssuer.issue("introspected-account", "user@example.com", Set.of(AccountRole.USER));
+        TokenIntrospectionRequest request = new TokenIntrospectionRequest(List.of(token, "invalid-token"));
+
+        mockMvc.perform(post("/api/v1/tokens/introspect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("results.length()").value(2))
+                .andExpect(jsonPath("results[0].active").value(true))
+                .andExpect(jsonPath("results[0].aid").value("introspected-account"))
+                .andExpect(jsonPath("results[0].exp").isNumber())
+                .andExpect(jsonPath("results[1].active").value(false))
+                .andExpect(jsonPath("results[1].aid").doesNotExist())
+
+                .andDo(documentHandler.document(
+                        requestFields(
+                                fieldWithPath("tokens").description("Access tokens to introspect, up to " + TokenIntrospectionRequest.MAX_SIZE)
+                        ),
+                        responseFields(
+                                fieldWithPath("results[].active").description("Whether the token is valid and not expired"),
+                                fieldWithPath("results[].aid").optional().description("Account ID of an active token"),
+                                fieldWithPath("results[].exp").optional().description("Expiration time of an active token in seconds since the epoch")
+                        )
+                ));
+    }
+
+    @DisplayName("Try to introspect an empty list of tokens")
+    @Test
+    void introspectNoTokens() throws Exception {
+        mockMvc.perform(post("/api/v1/tokens/introspect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenIntrospectionRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+}
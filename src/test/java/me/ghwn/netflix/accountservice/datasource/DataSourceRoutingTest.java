@@ -0,0 +1,74 @@
+package me.ghwn.netflix.accountservice.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uses the test database as the primary and a second in-memory H2 database as the replica.
+ */
+@SpringBootTest(properties = {
+        "account.datasource.replica.url=jdbc:h2:mem:replicadb;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "account.datasource.replica-lag-tolerance=10s"
+})
+class DataSourceRoutingTest {
+
+    @Autowired DataSource dataSource;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired PrimaryStickiness primaryStickiness;
+    @Autowired MeterRegistry meterRegistry;
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnlyTransaction;
+    TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @DisplayName("Read-only transactions use the replica")
+    @Test
+    void routeReadOnlyTransactionToReplica() {
+        assertThat(readOnlyTransaction.execute(status -> currentDatabase())).isEqualToIgnoringCase("replicadb");
+        assertThat(meterRegistry.get("hikaricp.connections.usage").tag("pool", "replica").timer().count())
+                .isPositive();
+    }
+
+    @DisplayName("Read-write transactions use the primary")
+    @Test
+    void routeReadWriteTransactionToPrimary() {
+        assertThat(readWriteTransaction.execute(status -> currentDatabase())).isEqualToIgnoringCase("testdb");
+    }
+
+    @DisplayName("Reads of a recently written account stay on the primary")
+    @Test
+    void stickToPrimaryAfterWrite() {
+        String accountId = UUID.randomUUID().toString();
+        readWriteTransaction.executeWithoutResult(status -> primaryStickiness.stick(accountId));
+
+        assertThat(readOnlyTransaction.execute(status -> primaryStickiness.read(accountId, this::currentDatabase)))
+                .isEqualToIgnoringCase("testdb");
+        assertThat(readOnlyTransaction.execute(status -> primaryStickiness.read("other", this::currentDatabase)))
+                .isEqualToIgnoringCase("replicadb");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+}
@@ -0,0 +1,50 @@
+package me.ghwn.netflix.accountservice.mapping;
+
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AccountMapperTest {
+
+    @Autowired AccountMapper accountMapper;
+
+    @DisplayName("Convert SignupRequest to Entity keeping defaults for missing fields")
+    @Test
+    void signupRequestToEntity() {
+        SignupRequest request = new SignupRequest("admin@example.com", "P@ssw0rd1234", null, null);
+
+        Account account = accountMapper.toEntity(request);
+        assertThat(account.getEmail()).isEqualTo("admin@example.com");
+        assertThat(account.getPassword()).isEqualTo("P@ssw0rd1234");
+        assertThat(account.isActive()).isTrue();
+        assertThat(account.getRoles()).containsExactly(AccountRole.USER);
+    }
+
+    @DisplayName("Merge AccountUpdateRequest into Entity skipping null fields")
+    @Test
+    void mergeUpdateRequest() {
+        Account account = new Account(1L, UUID.randomUUID().toString(), "admin@example.com", "hash", true,
+                Set.of(AccountRole.USER));
+
+        accountMapper.update(new AccountUpdateRequest(null, false, null), account);
+        assertThat(account.getPassword()).isEqualTo("hash");
+        assertThat(account.isActive()).isFalse();
+        assertThat(account.getRoles()).containsExactly(AccountRole.USER);
+
+        accountMapper.update(new AccountUpdateRequest(null, null, Set.of(AccountRole.ADMIN)), account);
+        assertThat(account.isActive()).isFalse();
+        assertThat(account.getRoles()).containsExactly(AccountRole.ADMIN);
+    }
+
+}
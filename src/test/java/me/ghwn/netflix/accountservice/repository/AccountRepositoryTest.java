@@ -0,0 +1,106 @@
+package me.ghwn.netflix.accountservice.repository;
+
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The default batch fetch size is turned off, so that batching of roles comes from {@code @BatchSize} alone.
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=1"
+})
+class AccountRepositoryTest {
+
+    @Autowired AccountRepository accountRepository;
+    @Autowired EntityManager entityManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    List<String> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 50; i++) {
+            Account account = new Account();
+            account.setAccountId(UUID.randomUUID().toString());
+            account.setEmail(String.format("user%d@example.com", i));
+            account.setPassword("{noop}P@ssw0rd1234");
+            account.setRoles(Set.of(AccountRole.USER, AccountRole.ADMIN));
+            accountRepository.save(account);
+            accountIds.add(account.getAccountId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @DisplayName("A list page loads roles of all of its accounts in one query, whatever the page size")
+    @Test
+    void loadRolesOfPageInOneQuery() {
+        for (int size : new int[]{10, 50}) {
+            entityManager.clear();
+            statistics.clear();
+
+            Page<Account> page = accountRepository.findAll(PageRequest.of(0, size));
+            page.forEach(account -> assertThat(account.getRoles()).hasSize(2));
+
+            // page, count and roles
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        }
+    }
+
+    @DisplayName("Looking up an account by email loads its roles in the same query")
+    @Test
+    void loadRolesWithAccount() {
+        Account account = accountRepository.findByEmail("user0@example.com").orElseThrow();
+
+        assertThat(account.getRoles()).containsExactlyInAnyOrder(AccountRole.USER, AccountRole.ADMIN);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Looking up accounts by accountIds loads them and their roles in one query")
+    @Test
+    void loadAccountsWithRolesByAccountIds() {
+        List<Account> accounts = accountRepository.findAllByAccountIdIn(accountIds.subList(0, 20));
+
+        assertThat(accounts).hasSize(20);
+        accounts.forEach(account -> assertThat(account.getRoles()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("A page of account summaries is read without roles and without managed entities")
+    @Test
+    void loadAccountSummariesWithoutRoles() {
+        Page<AccountSummary> page = accountRepository.findAllSummariesBy(PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        page.forEach(summary -> assertThat(summary.getAccountId()).isNotNull());
+        // page and count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+}
@@ -0,0 +1,70 @@
+package me.ghwn.netflix.accountservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessTokenIssuerTest {
+
+    private static final String SECRET = "testsecrettestsecrettestsecrettestsecrettestsecrettestsecrettestsecrettestsecrettestsecrettestsecret";
+    private static final String NEW_SECRET = "bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0bmV3c2VjcmV0";
+
+    @DisplayName("Issued tokens can be verified by jjwt with the configured secret")
+    @Test
+    void issue() {
+        MockEnvironment env = environment(SECRET);
+        AccessTokenIssuer issuer = new AccessTokenIssuer(new AccessTokenKeyHolder(env));
+
+        String token = issuer.issue("account-\"id\"", "user@example.com", List.of(AccountRole.USER, AccountRole.ADMIN));
+
+        assertThat(token).startsWith("eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9.");
+        Claims claims = parse(token, SECRET);
+        assertThat(claims.get(AccessTokenIssuer.ACCOUNT_ID_CLAIM)).isEqualTo("account-\"id\"");
+        assertThat(claims.getSubject()).isEqualTo("user@example.com");
+        assertThat(claims.get(AccessTokenIssuer.ROLES_CLAIM, List.class)).containsExactly("USER", "ADMIN");
+        assertThat(claims.getExpiration().getTime() - claims.getIssuedAt().getTime()).isEqualTo(3600_000L);
+    }
+
+    @DisplayName("The signing key is derived again when the secret is refreshed")
+    @Test
+    void refreshSigningKey() {
+        MockEnvironment env = environment(SECRET);
+        AccessTokenKeyHolder keyHolder = new AccessTokenKeyHolder(env);
+        AccessTokenIssuer issuer = new AccessTokenIssuer(keyHolder);
+
+        env.setProperty("jwt.secret", NEW_SECRET);
+        keyHolder.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jwt.secret")));
+        String token = issuer.issue("account-id", "user@example.com", Set.of(AccountRole.USER));
+
+        assertThat(parse(token, NEW_SECRET).get(AccessTokenIssuer.ACCOUNT_ID_CLAIM)).isEqualTo("account-id");
+        assertThatThrownBy(() -> parse(token, SECRET)).isInstanceOf(SignatureException.class);
+    }
+
+    private MockEnvironment environment(String secret) {
+        return new MockEnvironment()
+                .withProperty("jwt.secret", secret)
+                .withProperty("jwt.access-token.expiration-time", "3600");
+    }
+
+    private Claims parse(String token, String secret) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+}
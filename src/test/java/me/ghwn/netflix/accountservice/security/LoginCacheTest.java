@@ -0,0 +1,85 @@
+package me.ghwn.netflix.accountservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.LoginRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = "account.login-cache.enabled=true")
+class LoginCacheTest {
+
+    @Autowired WebApplicationContext webApplicationContext;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountService accountService;
+    @Autowired MeterRegistry meterRegistry;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @DisplayName("Repeated login with the same credentials is verified from the cache")
+    @Test
+    void verifyRepeatedLoginFromCache() throws Exception {
+        accountService.createAccount(new SignupRequest(
+                "cached-login@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        double hitsBefore = cacheHits();
+
+        login("cached-login@example.com", "P@ssw0rd1234").andExpect(status().isOk());
+        login("cached-login@example.com", "P@ssw0rd1234").andExpect(status().isOk());
+
+        assertThat(cacheHits() - hitsBefore).isEqualTo(1.0);
+    }
+
+    @DisplayName("Changing the password invalidates cached logins")
+    @Test
+    void invalidateCachedLoginOnPasswordChange() throws Exception {
+        AccountDto account = accountService.createAccount(new SignupRequest(
+                "changed-login@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER)));
+        login("changed-login@example.com", "P@ssw0rd1234").andExpect(status().isOk());
+
+        accountService.updateAccount(account.getId(), new AccountUpdateRequest("newP@ssw0rd1234", null, null));
+
+        login("changed-login@example.com", "P@ssw0rd1234").andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        return mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(email, password)))
+                .characterEncoding(StandardCharsets.UTF_8.name()));
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("account.login.cache").tag("result", "hit").counter().count();
+    }
+
+}
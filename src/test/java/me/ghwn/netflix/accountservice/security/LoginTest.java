@@ -1,9 +1,13 @@
 package me.ghwn.netflix.accountservice.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.ghwn.netflix.accountservice.cache.AccountCache;
 import me.ghwn.netflix.accountservice.dto.LoginRequest;
 import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.Account;
 import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.repository.AccountRepository;
 import me.ghwn.netflix.accountservice.service.AccountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +25,9 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
+import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -37,6 +45,9 @@ public class LoginTest {
     @Autowired ObjectMapper objectMapper;
     @Autowired AccountService accountService;
     @Autowired ModelMapper modelMapper;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired AccountRepository accountRepository;
+    @Autowired CacheManager cacheManager;
 
     MockMvc mockMvc;
 
@@ -67,4 +78,61 @@ public class LoginTest {
                 .andExpect(header().exists("account-id"));
     }
 
+    @DisplayName("Login time is recorded by phase")
+    @Test
+    void recordLoginPhases() throws Exception {
+        SignupRequest signupRequest = new SignupRequest(
+                "timed@example.com", "P@ssw0rd1234", true, Set.of(AccountRole.USER));
+        accountService.createAccount(signupRequest);
+        long loadUserCount = phaseCount("load-user");
+        long verifyPasswordCount = phaseCount("verify-password");
+
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(modelMapper.map(signupRequest, LoginRequest.class)))
+                        .characterEncoding(StandardCharsets.UTF_8.name()))
+                .andExpect(status().isOk());
+
+        assertThat(phaseCount("parse")).isPositive();
+        assertThat(phaseCount("load-user")).isEqualTo(loadUserCount + 1);
+        assertThat(phaseCount("verify-password")).isEqualTo(verifyPasswordCount + 1);
+        assertThat(meterRegistry.get("account.login").tag("outcome", "success").timer().count()).isPositive();
+        assertThat(meterRegistry.get("account.token.issue").timer().count()).isPositive();
+        assertThat(meterRegistry.get("account.service").tag("method", "loadUserByUsername").timer().count()).isPositive();
+    }
+
+    @DisplayName("A plain or weaker hash is replaced with one of the configured strength after login")
+    @Test
+    void rehashPasswordOnLogin() throws Exception {
+        String[] outdatedHashes = {"{noop}P@ssw0rd1234", "{bcrypt}" + new BCryptPasswordEncoder(4).encode("P@ssw0rd1234")};
+        for (int i = 0; i < outdatedHashes.length; i++) {
+            Account account = new Account();
+            account.setAccountId(UUID.randomUUID().toString());
+            account.setEmail(String.format("rehash%d@example.com", i));
+            account.setPassword(outdatedHashes[i]);
+            account.setRoles(Set.of(AccountRole.USER));
+            accountRepository.saveAndFlush(account);
+            accountService.getAccountByAccountId(account.getAccountId());
+            assertThat(cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId())).isNotNull();
+
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setEmail(account.getEmail());
+            loginRequest.setPassword("P@ssw0rd1234");
+            mockMvc.perform(post("/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loginRequest))
+                            .characterEncoding(StandardCharsets.UTF_8.name()))
+                    .andExpect(status().isOk());
+
+            String storedHash = accountRepository.findByEmail(account.getEmail()).orElseThrow().getPassword();
+            assertThat(storedHash).isNotEqualTo(outdatedHashes[i]).startsWith("{bcrypt}$2a$").doesNotStartWith("{bcrypt}$2a$04$");
+            assertThat(cacheManager.getCache(AccountCache.BY_ACCOUNT_ID).get(account.getAccountId())).isNull();
+            assertThat(cacheManager.getCache(AccountCache.BY_EMAIL).get(account.getEmail())).isNull();
+        }
+    }
+
+    private long phaseCount(String phase) {
+        return meterRegistry.get("account.login.phase").tag("phase", phase).timer().count();
+    }
+
 }
@@ -0,0 +1,70 @@
+package me.ghwn.netflix.accountservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "account.password-hashing.pool-size=1",
+        "account.password-hashing.queue-capacity=1",
+        "account.password-hashing.retry-after=5s"
+})
+class PasswordHashingExecutorTest {
+
+    @Autowired WebApplicationContext webApplicationContext;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired PasswordHashingExecutor passwordHashingExecutor;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @DisplayName("Signup is rejected with 503 and Retry-After when the hashing queue is full")
+    @Test
+    void rejectSignupWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = passwordHashingExecutor.submit(() -> {
+            release.await();
+            return null;
+        });
+        Future<?> queued = passwordHashingExecutor.submit(() -> {
+            release.await();
+            return null;
+        });
+
+        try {
+            SignupRequest request = new SignupRequest("busy@example.com", "P@ssw0rd1234", true, null);
+            mockMvc.perform(post("/api/v1/accounts")
+                            .accept(MediaTypes.HAL_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                    .andExpect(jsonPath("errors[*].message").exists());
+        } finally {
+            release.countDown();
+            running.get();
+            queued.get();
+        }
+    }
+
+}
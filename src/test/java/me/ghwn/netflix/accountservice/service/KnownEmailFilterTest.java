@@ -0,0 +1,79 @@
+package me.ghwn.netflix.accountservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.dto.SignupResult;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.entity.AccountRole;
+import me.ghwn.netflix.accountservice.exception.DuplicateEmailException;
+import me.ghwn.netflix.accountservice.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional
+@SpringBootTest
+class KnownEmailFilterTest {
+
+    @Autowired AccountService accountService;
+    @Autowired KnownEmailFilter knownEmailFilter;
+    @Autowired AccountRepository accountRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    @DisplayName("A new email skips the existence check and is known after signup")
+    @Test
+    void addEmailOnSignup() {
+        assertThat(knownEmailFilter.mightContain("filtered@example.com")).isFalse();
+
+        accountService.createAccount(new SignupRequest("filtered@example.com", "P@ssw0rd1234", true, null));
+
+        assertThat(knownEmailFilter.mightContain("filtered@example.com")).isTrue();
+        assertThat(knownEmailFilter.mightContain("Filtered@Example.com")).isTrue();
+    }
+
+    @DisplayName("A taken email is rejected before its password is hashed")
+    @Test
+    void rejectTakenEmailBeforeHashing() {
+        accountService.createAccount(new SignupRequest("duplicate@example.com", "P@ssw0rd1234", true, null));
+        long encodes = encodeCount();
+
+        assertThatThrownBy(() -> accountService.createAccount(
+                new SignupRequest("duplicate@example.com", "P@ssw0rd1234", true, null)))
+                .isInstanceOf(DuplicateEmailException.class);
+        assertThat(encodeCount()).isEqualTo(encodes);
+    }
+
+    @DisplayName("A batch rejects a taken email that the filter does not know, e.g. one taken on another instance")
+    @Test
+    void rejectTakenEmailUnknownToFilterInBatch() {
+        Account account = new Account();
+        account.setAccountId(UUID.randomUUID().toString());
+        account.setEmail("elsewhere@example.com");
+        account.setPassword("{noop}P@ssw0rd1234");
+        account.setRoles(Set.of(AccountRole.USER));
+        accountRepository.saveAndFlush(account);
+        assertThat(knownEmailFilter.mightContain("elsewhere@example.com")).isFalse();
+
+        List<SignupResult> results = accountService.createAccounts(List.of(
+                new SignupRequest("elsewhere@example.com", "P@ssw0rd1234", true, null),
+                new SignupRequest("batch-new@example.com", "P@ssw0rd1234", true, null)));
+
+        assertThat(results.get(0).isCreated()).isFalse();
+        assertThat(results.get(0).getError()).isEqualTo("Email already exists");
+        assertThat(results.get(1).isCreated()).isTrue();
+    }
+
+    private long encodeCount() {
+        return meterRegistry.get("account.password.hash").tag("operation", "encode").timer().count();
+    }
+
+}
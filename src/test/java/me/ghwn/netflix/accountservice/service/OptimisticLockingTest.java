@@ -0,0 +1,103 @@
+package me.ghwn.netflix.accountservice.service;
+
+import me.ghwn.netflix.accountservice.dto.AccountDto;
+import me.ghwn.netflix.accountservice.dto.AccountUpdateRequest;
+import me.ghwn.netflix.accountservice.dto.SignupRequest;
+import me.ghwn.netflix.accountservice.entity.Account;
+import me.ghwn.netflix.accountservice.exception.PreconditionFailedException;
+import me.ghwn.netflix.accountservice.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Not transactional, so that every service call commits like concurrent requests would.
+ */
+@SpringBootTest
+class OptimisticLockingTest {
+
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired OptimisticLockRetry optimisticLockRetry;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    AccountDto account;
+
+    @BeforeEach
+    void setUp() {
+        account = accountService.createAccount(new SignupRequest(
+                UUID.randomUUID() + "@example.com", "P@ssw0rd1234", true, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountService.deleteAccount(account.getId());
+    }
+
+    @DisplayName("An update based on a stale version is rejected")
+    @Test
+    void rejectUpdateOfStaleVersion() {
+        AccountDto updated = accountService.updateAccount(
+                account.getId(), account.getVersion(), new AccountUpdateRequest(null, false, null));
+        assertThat(updated.getVersion()).isGreaterThan(account.getVersion());
+
+        assertThatThrownBy(() -> accountService.updateAccount(
+                account.getId(), account.getVersion(), new AccountUpdateRequest(null, true, null)))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> accountService.deleteAccount(account.getId(), account.getVersion()))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @DisplayName("An update committed concurrently is not overwritten")
+    @Test
+    void detectConcurrentUpdate() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            Account stale = accountRepository.findById(account.getId()).orElseThrow();
+            concurrentTransaction.executeWithoutResult(concurrentStatus -> accountService.updateAccount(
+                    account.getId(), new AccountUpdateRequest(null, false, null)));
+            stale.setActive(true);
+            stale.setPassword("overwritten");
+            accountRepository.flush();
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(accountService.getAccountById(account.getId()).isActive()).isFalse();
+    }
+
+    @DisplayName("A conflicting operation is retried up to the maximum number of attempts")
+    @Test
+    void retryConflicts() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = optimisticLockRetry.run(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "updated";
+        });
+        assertThat(result).isEqualTo("updated");
+
+        attempts.set(0);
+        assertThatThrownBy(() -> optimisticLockRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(3);
+    }
+
+}
@@ -0,0 +1,144 @@
+package me.ghwn.netflix.accountservice.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionFilterTest {
+
+    private static final int MIN_RESPONSE_SIZE = 1024;
+    private static final String ETAG = "\"1-2\"";
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ResponseCompressionFilter filter = new ResponseCompressionFilter(MIN_RESPONSE_SIZE, Deflater.BEST_SPEED,
+            List.of(MediaType.parseMediaType("application/hal+json")), 4, meterRegistry);
+
+    @DisplayName("Large bodies are compressed with the negotiated encoding")
+    @Test
+    void compressLargeBody() throws Exception {
+        byte[] body = body(10_000);
+
+        MockHttpServletResponse gzipped = perform("deflate;q=0.5, gzip", body);
+        assertThat(gzipped.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzipped.getContentAsByteArray().length).isLessThan(body.length);
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray())))).isEqualTo(body);
+
+        MockHttpServletResponse deflated = perform("gzip;q=0, deflate", body);
+        assertThat(deflated.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(decode(new InflaterInputStream(new ByteArrayInputStream(deflated.getContentAsByteArray())))).isEqualTo(body);
+
+        assertThat(meterRegistry.get("account.response.body.bytes").tag("encoding", "gzip").counter().count())
+                .isEqualTo(body.length);
+        assertThat(meterRegistry.get("account.response.transferred.bytes").tag("encoding", "gzip").counter().count())
+                .isEqualTo(gzipped.getContentAsByteArray().length);
+    }
+
+    @DisplayName("Small bodies and clients without Accept-Encoding get the body as is")
+    @Test
+    void keepSmallBody() throws Exception {
+        byte[] small = body(MIN_RESPONSE_SIZE - 1);
+        MockHttpServletResponse response = perform("gzip", small);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(small.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(small);
+
+        byte[] large = body(10_000);
+        response = perform(null, large);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(large);
+        assertThat(meterRegistry.get("account.response.transferred.bytes").tag("encoding", "identity").counter().count())
+                .isEqualTo(small.length + large.length);
+    }
+
+    @DisplayName("A compressed body gets an ETag with the encoding, which is removed again for revalidation")
+    @Test
+    void alterETagOfCompressedBody() throws Exception {
+        byte[] body = body(10_000);
+        MockHttpServletResponse compressed = perform("gzip", null, body);
+        assertThat(compressed.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-2-gzip\"");
+
+        MockHttpServletResponse small = perform("gzip", null, body(MIN_RESPONSE_SIZE - 1));
+        assertThat(small.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-2\"");
+
+        MockHttpServletResponse notModified = perform("gzip", "\"1-2-gzip\"", body);
+        assertThat(notModified.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-2-gzip\"");
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+
+        MockHttpServletResponse modified = perform("gzip", "\"1-1-gzip\"", body);
+        assertThat(modified.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(modified.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-2-gzip\"");
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding, byte[] body) throws Exception {
+        return perform(acceptEncoding, null, body);
+    }
+
+    /**
+     * Sends a request to a servlet that answers with ETag "1-2", or with 304 if If-None-Match has that tag.
+     */
+    private MockHttpServletResponse perform(String acceptEncoding, String ifNoneMatch, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/accounts");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                if (ETAG.equals(req.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                    resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    resp.setHeader(HttpHeaders.ETAG, ETAG);
+                    return;
+                }
+                resp.setHeader(HttpHeaders.ETAG, ETAG);
+                resp.setContentType("application/hal+json");
+                // Written in chunks and flushed, as message converters do
+                for (int offset = 0; offset < body.length; offset += 500) {
+                    resp.getOutputStream().write(body, offset, Math.min(500, body.length - offset));
+                }
+                resp.getOutputStream().flush();
+            }
+        }));
+        return response;
+    }
+
+    private static byte[] body(int size) {
+        StringBuilder body = new StringBuilder(size);
+        for (int i = 0; body.length() < size; i++) {
+            body.append("{\"id\":").append(i).append(",\"email\":\"user").append(i).append("@example.com\"},");
+        }
+        return body.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decode(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+create sequence if not exists account_id_seq start with 1 increment by 50;
+
+create table if not exists account (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    account_id varchar(255) not null,
+    active boolean not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    version bigint,
+    primary key (id)
+);
+
+create table if not exists account_roles (
+    account_id bigint not null,
+    roles varchar(255)
+);